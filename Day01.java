@@ -1,7 +1,5 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.List;
 
 /**
  * Day 1: Secret Entrance
@@ -9,32 +7,52 @@ import java.util.List;
  * Part 1: Count times dial ends at position 0 after rotations
  * Part 2: Count times dial passes through position 0 during rotations
  */
-public class Day01 {
+public class Day01 implements Solver<Input> {
     
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day01.txt"));
+        Input input = Input.map(Paths.get("inputs/day01.txt"));
         
         long start = System.nanoTime();
-        int part1 = solvePart1(lines);
+        int part1 = solvePart1(input);
         long time1 = System.nanoTime() - start;
         
         start = System.nanoTime();
-        int part2 = solvePart2(lines);
+        int part2 = solvePart2(input);
         long time2 = System.nanoTime() - start;
         
         System.out.println("=== Day 01: Secret Entrance ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
     }
     
-    static int solvePart1(List<String> lines) {
+    @Override
+    public String title() {
+        return "Secret Entrance";
+    }
+    
+    /** Solved straight from the bytes: the input is the model. */
+    @Override
+    public Input parse(Input input) {
+        return input;
+    }
+    
+    @Override
+    public long part1(Input input) {
+        return solvePart1(input.duplicate());
+    }
+    
+    @Override
+    public long part2(Input input) {
+        return solvePart2(input.duplicate());
+    }
+    
+    static int solvePart1(Input input) {
         int pos = 50, count = 0;
         
-        for (String line : lines) {
-            if (line.trim().isEmpty()) continue;
-            
-            char dir = line.charAt(0);
-            int dist = Integer.parseInt(line.substring(1));
+        input.rewind();
+        while (input.hasNextNumber()) {
+            byte dir = input.at(input.lineStart());
+            int dist = input.nextInt();
             
             pos = dir == 'L' ? mod(pos - dist, 100) : (pos + dist) % 100;
             if (pos == 0) count++;
@@ -43,14 +61,13 @@ public class Day01 {
         return count;
     }
     
-    static int solvePart2(List<String> lines) {
+    static int solvePart2(Input input) {
         int pos = 50, count = 0;
         
-        for (String line : lines) {
-            if (line.trim().isEmpty()) continue;
-            
-            char dir = line.charAt(0);
-            int dist = Integer.parseInt(line.substring(1));
+        input.rewind();
+        while (input.hasNextNumber()) {
+            byte dir = input.at(input.lineStart());
+            int dist = input.nextInt();
             
             for (int i = 0; i < dist; i++) {
                 pos = dir == 'L' ? (pos == 0 ? 99 : pos - 1) : (pos == 99 ? 0 : pos + 1);
@@ -64,11 +81,4 @@ public class Day01 {
     static int mod(int a, int b) {
         return ((a % b) + b) % b;
     }
-    
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
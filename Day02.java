@@ -1,7 +1,5 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.List;
 
 /**
  * Day 02: Invalid Product IDs
@@ -9,34 +7,53 @@ import java.util.List;
  * Part 1: Find invalid IDs where a digit sequence is repeated exactly twice
  * Part 2: Find invalid IDs where a digit sequence is repeated at least twice
  */
-public class Day02 {
+public class Day02 implements Solver<Input> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day02.txt"));
+        Input input = Input.map(Paths.get("inputs/day02.txt"));
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(input);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(input);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 02: Invalid Product IDs ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
     }
 
-    static long solvePart1(List<String> lines) {
-        String input = String.join("", lines).trim();
-        String[] ranges = input.split(",");
+    @Override
+    public String title() {
+        return "Invalid Product IDs";
+    }
+
+    /** Solved straight from the bytes: the input is the model. */
+    @Override
+    public Input parse(Input input) {
+        return input;
+    }
+
+    @Override
+    public long part1(Input input) {
+        return solvePart1(input.duplicate());
+    }
 
+    @Override
+    public long part2(Input input) {
+        return solvePart2(input.duplicate());
+    }
+
+    static long solvePart1(Input input) {
         long totalSum = 0;
 
-        for (String range : ranges) {
-            String[] parts = range.split("-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
+        // "a-b,c-d,..." - the '-' after a digit is a separator, not a sign
+        input.rewind();
+        while (input.hasNextNumber()) {
+            long start = input.nextLong();
+            long end = input.nextLong();
 
             for (long num = start; num <= end; num++) {
                 if (isInvalidPart1(num)) {
@@ -48,16 +65,13 @@ public class Day02 {
         return totalSum;
     }
 
-    static long solvePart2(List<String> lines) {
-        String input = String.join("", lines).trim();
-        String[] ranges = input.split(",");
-
+    static long solvePart2(Input input) {
         long totalSum = 0;
 
-        for (String range : ranges) {
-            String[] parts = range.split("-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
+        input.rewind();
+        while (input.hasNextNumber()) {
+            long start = input.nextLong();
+            long end = input.nextLong();
 
             for (long num = start; num <= end; num++) {
                 if (isInvalidPart2(num)) {
@@ -122,11 +136,4 @@ public class Day02 {
 
         return false;
     }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.List;
 
 /**
  * Day 03: Adapter Array (Battery Joltage)
@@ -9,36 +7,61 @@ import java.util.List;
  * Part 1: Find max 2-digit joltage from each bank by selecting 2 batteries
  * Part 2: Find max 12-digit joltage from each bank by selecting 12 batteries
  */
-public class Day03 {
+public class Day03 implements Solver<Input> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day03.txt"));
+        Input input = Input.map(Paths.get("inputs/day03.txt"));
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(input);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(input);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 03: Adapter Array ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
     }
 
-    static long solvePart1(List<String> lines) {
+    @Override
+    public String title() {
+        return "Adapter Array";
+    }
+
+    /** Solved straight from the bytes: the input is the model. */
+    @Override
+    public Input parse(Input input) {
+        return input;
+    }
+
+    @Override
+    public long part1(Input input) {
+        return solvePart1(input.duplicate());
+    }
+
+    @Override
+    public long part2(Input input) {
+        return solvePart2(input.duplicate());
+    }
+
+    static long solvePart1(Input input) {
         long total = 0;
-        for (String bank : lines) {
-            total += maxJoltage(bank, 2);
+        input.rewind();
+        while (input.hasMore()) {
+            Input.Row bank = input.rowView();
+            if (!bank.isEmpty()) total += maxJoltage(bank, 2);
         }
         return total;
     }
 
-    static long solvePart2(List<String> lines) {
+    static long solvePart2(Input input) {
         long total = 0;
-        for (String bank : lines) {
-            total += maxJoltage(bank, 12);
+        input.rewind();
+        while (input.hasMore()) {
+            Input.Row bank = input.rowView();
+            if (!bank.isEmpty()) total += maxJoltage(bank, 12);
         }
         return total;
     }
@@ -50,7 +73,7 @@ public class Day03 {
      * Uses a greedy approach: at each step, pick the largest digit possible
      * while ensuring enough digits remain to complete the selection.
      */
-    static long maxJoltage(String bank, int k) {
+    static long maxJoltage(Input.Row bank, int k) {
         int n = bank.length();
         long result = 0;
         int start = 0;
@@ -59,12 +82,12 @@ public class Day03 {
             int remainingToPick = k - i;
             int end = n - remainingToPick + 1;
 
-            char bestDigit = '0';
+            byte bestDigit = '0';
             int bestPos = start;
 
             for (int p = start; p < end; p++) {
-                if (bank.charAt(p) > bestDigit) {
-                    bestDigit = bank.charAt(p);
+                if (bank.at(p) > bestDigit) {
+                    bestDigit = bank.at(p);
                     bestPos = p;
                 }
             }
@@ -75,11 +98,4 @@ public class Day03 {
 
         return result;
     }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
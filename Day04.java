@@ -1,8 +1,7 @@
+import aoc.collections.IntList;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Day 04: Printing Department
@@ -10,73 +9,97 @@ import java.util.List;
  * Part 1: Count rolls of paper accessible by forklift (fewer than 4 adjacent rolls)
  * Part 2: Iteratively remove accessible rolls until none remain, count total removed
  */
-public class Day04 {
+public class Day04 implements Solver<Grid> {
 
-    // 8 directions: all adjacent positions including diagonals
-    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
-    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+    static final Metrics.Counter CELLS_VISITED = Metrics.counter("day04.cellsVisited");
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day04.txt"));
+        Input input = Input.map(Paths.get("inputs/day04.txt"));
+        Grid grid = parseGrid(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(grid);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(grid);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 04: Printing Department ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+    }
+
+    @Override
+    public String title() {
+        return "Printing Department";
+    }
+
+    /** The diagram framed by a border of empty floor, so every cell has 8 neighbors. */
+    @Override
+    public Grid parse(Input input) {
+        return parseGrid(input);
     }
 
-    static long solvePart1(List<String> lines) {
-        int rows = lines.size();
-        int cols = lines.get(0).length();
+    @Override
+    public long part1(Grid grid) {
+        return solvePart1(grid);
+    }
+
+    @Override
+    public long part2(Grid grid) {
+        return solvePart2(grid);
+    }
 
-        char[][] grid = parseGrid(lines);
+    static long solvePart1(Grid grid) {
+        int rows = grid.rows();
+        int cols = grid.cols();
 
         int accessibleCount = 0;
         for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (grid[r][c] == '@' && countAdjacentRolls(grid, r, c) < 4) {
+            for (int i = grid.rowStart(r), end = i + cols; i < end; i++) {
+                if (grid.at(i) == '@' && grid.count8(i, (byte) '@') < 4) {
                     accessibleCount++;
                 }
             }
         }
+        CELLS_VISITED.add((long) rows * cols);
 
         return accessibleCount;
     }
 
-    static long solvePart2(List<String> lines) {
-        int rows = lines.size();
-        int cols = lines.get(0).length();
-
-        char[][] grid = parseGrid(lines);
+    /** Removes rolls from a copy, so the parsed grid can be shared with part 1. */
+    static long solvePart2(Grid parsed) {
+        Grid grid = parsed.copy();
+        int rows = grid.rows();
+        int cols = grid.cols();
 
         long totalRemoved = 0;
+        IntList accessible = new IntList();
 
         while (true) {
-            // Find all accessible rolls
-            List<int[]> accessible = new ArrayList<>();
+            Events.Stage round = Events.stage(4, "removal round");
+            // Find all accessible rolls, by cell index
+            accessible.clear();
             for (int r = 0; r < rows; r++) {
-                for (int c = 0; c < cols; c++) {
-                    if (grid[r][c] == '@' && countAdjacentRolls(grid, r, c) < 4) {
-                        accessible.add(new int[]{r, c});
+                for (int i = grid.rowStart(r), end = i + cols; i < end; i++) {
+                    if (grid.at(i) == '@' && grid.count8(i, (byte) '@') < 4) {
+                        accessible.add(i);
                     }
                 }
             }
 
+            CELLS_VISITED.add((long) rows * cols);
             if (accessible.isEmpty()) {
+                Events.finish(round, 0);
                 break;
             }
 
             // Remove all accessible rolls
-            for (int[] pos : accessible) {
-                grid[pos[0]][pos[1]] = '.';
+            for (int k = 0; k < accessible.size(); k++) {
+                grid.set(accessible.get(k), (byte) '.');
             }
+            Events.finish(round, accessible.size());
 
             totalRemoved += accessible.size();
         }
@@ -84,37 +107,10 @@ public class Day04 {
         return totalRemoved;
     }
 
-    private static char[][] parseGrid(List<String> lines) {
-        int rows = lines.size();
-        int cols = lines.get(0).length();
-        char[][] grid = new char[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            grid[r] = lines.get(r).toCharArray();
-        }
+    private static Grid parseGrid(Input input) {
+        Events.Phase parse = Events.phase(4, Events.Phase.PARSE);
+        Grid grid = Grid.of(input, (byte) '.', true);
+        Events.finish(parse, input, grid.rows());
         return grid;
     }
-
-    private static int countAdjacentRolls(char[][] grid, int r, int c) {
-        int rows = grid.length;
-        int cols = grid[0].length;
-        int count = 0;
-
-        for (int d = 0; d < 8; d++) {
-            int nr = r + DR[d];
-            int nc = c + DC[d];
-
-            if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && grid[nr][nc] == '@') {
-                count++;
-            }
-        }
-
-        return count;
-    }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
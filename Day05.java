@@ -1,5 +1,6 @@
+import aoc.collections.LongList;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -11,42 +12,73 @@ import java.util.List;
  * Part 1: Count how many available ingredient IDs are fresh (fall within any range)
  * Part 2: Count total unique ingredient IDs considered fresh by all ranges
  */
-public class Day05 {
+public class Day05 implements Solver<Day05.Inventory> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day05.txt"));
+        Input input = Input.map(Paths.get("inputs/day05.txt"));
+        Inventory inventory = parseInventory(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(inventory);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(inventory);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 05: Cafeteria ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+    }
+
+    @Override
+    public String title() {
+        return "Cafeteria";
+    }
+
+    @Override
+    public Inventory parse(Input input) {
+        return parseInventory(input);
+    }
+
+    @Override
+    public long part1(Inventory inventory) {
+        return solvePart1(inventory);
+    }
+
+    @Override
+    public long part2(Inventory inventory) {
+        return solvePart2(inventory);
     }
 
-    static long solvePart1(List<String> lines) {
-        int blankLineIndex = findBlankLine(lines);
-        List<long[]> ranges = parseRanges(lines, blankLineIndex);
-        List<Long> ingredientIds = parseIngredientIds(lines, blankLineIndex);
+    /** Fresh ranges merged into sorted, disjoint, non-adjacent {start, end} pairs, and the IDs to check. */
+    record Inventory(long[][] fresh, long[] ids) {}
 
+    static long solvePart1(Inventory inventory) {
         long freshCount = 0;
-        for (long id : ingredientIds) {
-            if (isFresh(id, ranges)) {
+        for (long id : inventory.ids()) {
+            if (isFresh(id, inventory.fresh())) {
                 freshCount++;
             }
         }
         return freshCount;
     }
 
-    static long solvePart2(List<String> lines) {
-        int blankLineIndex = findBlankLine(lines);
-        List<long[]> ranges = parseRanges(lines, blankLineIndex);
+    static long solvePart2(Inventory inventory) {
+        // Count total fresh IDs
+        long total = 0;
+        for (long[] range : inventory.fresh()) {
+            total += range[1] - range[0] + 1;
+        }
+        return total;
+    }
 
+    static Inventory parseInventory(Input input) {
+        List<long[]> ranges = parseRanges(input);
+        return new Inventory(merge(ranges), parseIngredientIds(input).toArray());
+    }
+
+    static long[][] merge(List<long[]> ranges) {
         // Sort ranges by start value
         ranges.sort(Comparator.comparingLong(a -> a[0]));
 
@@ -62,56 +94,47 @@ public class Day05 {
                 merged.add(new long[]{range[0], range[1]});
             }
         }
-
-        // Count total fresh IDs
-        long total = 0;
-        for (long[] range : merged) {
-            total += range[1] - range[0] + 1;
-        }
-        return total;
+        return merged.toArray(new long[0][]);
     }
 
-    static int findBlankLine(List<String> lines) {
-        for (int i = 0; i < lines.size(); i++) {
-            if (lines.get(i).isEmpty()) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    static List<long[]> parseRanges(List<String> lines, int blankLineIndex) {
+    /**
+     * "start-end" lines up to the blank line. Leaves the cursor on the first
+     * ingredient ID line.
+     */
+    static List<long[]> parseRanges(Input input) {
+        Events.Phase parse = Events.phase(5, Events.Phase.PARSE);
         List<long[]> ranges = new ArrayList<>();
-        for (int i = 0; i < blankLineIndex; i++) {
-            String[] parts = lines.get(i).split("-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
+        input.rewind();
+        while (input.hasMore() && input.lineEnd() > input.position()) {
+            long start = input.nextLong();
+            long end = input.nextLong();
             ranges.add(new long[]{start, end});
+            input.nextLine();
         }
+        input.nextLine();
+        Events.finish(parse, input, ranges.size());
         return ranges;
     }
 
-    static List<Long> parseIngredientIds(List<String> lines, int blankLineIndex) {
-        List<Long> ids = new ArrayList<>();
-        for (int i = blankLineIndex + 1; i < lines.size(); i++) {
-            ids.add(Long.parseLong(lines.get(i)));
+    /** One ID per line from the cursor to the end of the input. */
+    static LongList parseIngredientIds(Input input) {
+        Events.Phase parse = Events.phase(5, Events.Phase.PARSE);
+        LongList ids = new LongList();
+        while (input.hasNextNumber()) {
+            ids.add(input.nextLong());
         }
+        Events.finish(parse, input, ids.size());
         return ids;
     }
 
-    static boolean isFresh(long id, List<long[]> ranges) {
-        for (long[] range : ranges) {
-            if (id >= range[0] && id <= range[1]) {
-                return true;
-            }
+    /** Binary search for the last merged range starting at or before id. */
+    static boolean isFresh(long id, long[][] fresh) {
+        int lo = 0, hi = fresh.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (fresh[mid][0] <= id) lo = mid + 1;
+            else hi = mid - 1;
         }
-        return false;
-    }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
+        return hi >= 0 && id <= fresh[hi][1];
     }
 }
\ No newline at end of file
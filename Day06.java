@@ -1,5 +1,6 @@
+import aoc.collections.LongList;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,11 +12,11 @@ import java.util.List;
  * Part 2: Read numbers per column (right-to-left cephalopod problems).
  *
  */
-public class Day06 {
+public class Day06 implements Solver<Grid> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day06.txt"));
-        char[][] grid = buildGrid(lines);
+        Input input = Input.map(Paths.get("inputs/day06.txt"));
+        Grid grid = buildGrid(input);
 
         long start = System.nanoTime();
         long part1 = solve(grid, false);
@@ -26,35 +27,56 @@ public class Day06 {
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 06: Trash Compactor ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+    }
+
+    @Override
+    public String title() {
+        return "Trash Compactor";
+    }
+
+    /** The worksheet padded to a rectangle; both readings work on it. */
+    @Override
+    public Grid parse(Input input) {
+        return buildGrid(input);
+    }
+
+    @Override
+    public long part1(Grid grid) {
+        return solve(grid, false);
     }
 
-    private static long solve(char[][] grid, boolean byColumn) {
-        int h = grid.length;
+    @Override
+    public long part2(Grid grid) {
+        return solve(grid, true);
+    }
+
+    private static long solve(Grid grid, boolean byColumn) {
+        int h = grid.rows();
         long total = 0;
 
         for (int[] seg : findSegments(grid)) {
             int start = seg[0], end = seg[1];
-            List<Long> nums = byColumn
+            LongList nums = byColumn
                     ? extractByColumn(grid, start, end, h - 1)
                     : extractByRow(grid, start, end, h - 1);
 
             if (!nums.isEmpty()) {
-                total += compute(nums, findOperator(grid[h - 1], start, end));
+                total += compute(nums, findOperator(grid, h - 1, start, end));
             }
         }
         return total;
     }
 
-    private static List<Long> extractByRow(char[][] grid, int start, int end, int rows) {
-        List<Long> nums = new ArrayList<>();
+    private static LongList extractByRow(Grid grid, int start, int end, int rows) {
+        LongList nums = new LongList();
         for (int r = 0; r < rows; r++) {
             long value = 0;
             boolean found = false;
-            for (int c = start; c < end; c++) {
-                char ch = grid[r][c];
-                if (Character.isDigit(ch)) {
+            for (int i = grid.index(r, start), last = grid.index(r, end); i < last; i++) {
+                byte ch = grid.at(i);
+                if (ch >= '0' && ch <= '9') {
                     found = true;
                     value = value * 10 + (ch - '0');
                 } else if (found) break;
@@ -64,14 +86,15 @@ public class Day06 {
         return nums;
     }
 
-    private static List<Long> extractByColumn(char[][] grid, int start, int end, int rows) {
-        List<Long> nums = new ArrayList<>();
+    private static LongList extractByColumn(Grid grid, int start, int end, int rows) {
+        LongList nums = new LongList();
+        int stride = grid.stride();
         for (int c = start; c < end; c++) {
             long value = 0;
             boolean found = false;
-            for (int r = 0; r < rows; r++) {
-                char ch = grid[r][c];
-                if (Character.isDigit(ch)) {
+            for (int i = grid.columnStart(c), last = i + rows * stride; i < last; i += stride) {
+                byte ch = grid.at(i);
+                if (ch >= '0' && ch <= '9') {
                     found = true;
                     value = value * 10 + (ch - '0');
                 }
@@ -81,29 +104,24 @@ public class Day06 {
         return nums;
     }
 
-    private static long compute(List<Long> nums, char op) {
+    private static long compute(LongList nums, char op) {
         long result = (op == '+') ? 0 : 1;
-        for (long v : nums) {
+        for (int i = 0; i < nums.size(); i++) {
+            long v = nums.get(i);
             result = (op == '+') ? result + v : result * v;
         }
         return result;
     }
 
-    private static char[][] buildGrid(List<String> lines) {
-        int h = lines.size();
-        int w = lines.stream().mapToInt(String::length).max().orElse(0);
-        char[][] grid = new char[h][w];
-        for (int r = 0; r < h; r++) {
-            String line = lines.get(r);
-            for (int c = 0; c < w; c++) {
-                grid[r][c] = (c < line.length()) ? line.charAt(c) : ' ';
-            }
-        }
+    private static Grid buildGrid(Input input) {
+        Events.Phase parse = Events.phase(6, Events.Phase.PARSE);
+        Grid grid = Grid.of(input, (byte) ' ', false);
+        Events.finish(parse, input, grid.rows());
         return grid;
     }
 
-    private static List<int[]> findSegments(char[][] grid) {
-        int w = grid[0].length;
+    private static List<int[]> findSegments(Grid grid) {
+        int w = grid.cols();
         List<int[]> segments = new ArrayList<>();
         int c = 0;
         while (c < w) {
@@ -116,24 +134,18 @@ public class Day06 {
         return segments;
     }
 
-    private static boolean isEmptyColumn(char[][] grid, int c) {
-        for (char[] row : grid) {
-            if (row[c] != ' ') return false;
+    private static boolean isEmptyColumn(Grid grid, int c) {
+        int stride = grid.stride();
+        for (int i = grid.columnStart(c), last = i + grid.rows() * stride; i < last; i += stride) {
+            if (grid.at(i) != ' ') return false;
         }
         return true;
     }
 
-    private static char findOperator(char[] row, int start, int end) {
-        for (int c = start; c < end; c++) {
-            if (row[c] == '+') return '+';
+    private static char findOperator(Grid grid, int row, int start, int end) {
+        for (int i = grid.index(row, start), last = grid.index(row, end); i < last; i++) {
+            if (grid.at(i) == '+') return '+';
         }
         return '*';
     }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
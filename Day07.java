@@ -1,11 +1,8 @@
+import aoc.collections.IntLongMap;
+import aoc.collections.IntSet;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Day 07: Laboratories
@@ -13,48 +10,75 @@ import java.util.Set;
  * Part 1: Count how many times a tachyon beam is split by splitters (^)
  * Part 2: Count total timelines using many-worlds interpretation (each split doubles timelines)
  */
-public class Day07 {
+public class Day07 implements Solver<Grid> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day07.txt"));
+        Input input = Input.map(Paths.get("inputs/day07.txt"));
+        Grid grid = parseGrid(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(grid);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(grid);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 07: Laboratories ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+    }
+
+    @Override
+    public String title() {
+        return "Laboratories";
     }
 
-    static long solvePart1(List<String> lines) {
-        int rows = lines.size();
-        int cols = lines.getFirst().length();
+    @Override
+    public Grid parse(Input input) {
+        return parseGrid(input);
+    }
 
+    @Override
+    public long part1(Grid grid) {
+        return solvePart1(grid);
+    }
+
+    @Override
+    public long part2(Grid grid) {
+        return solvePart2(grid);
+    }
+
+    static Grid parseGrid(Input input) {
+        Events.Phase parse = Events.phase(7, Events.Phase.PARSE);
+        Grid grid = Grid.of(input, (byte) ' ', false);
+        Events.finish(parse, input, grid.rows());
+        return grid;
+    }
+
+    static long solvePart1(Grid grid) {
         // Find starting position 'S'
-        int startCol = lines.getFirst().indexOf('S');
+        int cols = grid.cols();
+        int startCol = grid.indexOf(0, (byte) 'S');
 
-        // Track active beam positions (using set for merging)
-        Set<Integer> activeBeams = new HashSet<>();
+        // Track active beam positions (using set for merging); the two sets swap every row
+        IntSet activeBeams = new IntSet(cols), newBeams = new IntSet(cols);
         activeBeams.add(startCol);
 
         long splitCount = 0;
 
         // Process each row starting from row 1
-        for (int row = 1; row < rows; row++) {
-            String line = lines.get(row);
-            Set<Integer> newBeams = new HashSet<>();
+        for (int r = 1; r < grid.rows(); r++) {
+            int line = grid.rowStart(r);
+            newBeams.clear();
 
-            for (int col : activeBeams) {
+            for (int i = 0; i < activeBeams.size(); i++) {
+                int col = activeBeams.get(i);
                 if (col < 0 || col >= cols) {
                     continue;
                 }
 
-                char cell = line.charAt(col);
+                byte cell = grid.at(line + col);
 
                 if (cell == '.') {
                     // Beam passes through
@@ -71,7 +95,9 @@ public class Day07 {
                 }
             }
 
+            IntSet done = activeBeams;
             activeBeams = newBeams;
+            newBeams = done;
             if (activeBeams.isEmpty()) {
                 break;
             }
@@ -80,60 +106,55 @@ public class Day07 {
         return splitCount;
     }
 
-    static long solvePart2(List<String> lines) {
-        int rows = lines.size();
-        int cols = lines.getFirst().length();
-
+    static long solvePart2(Grid grid) {
         // Find starting position 'S'
-        int startCol = lines.getFirst().indexOf('S');
+        int cols = grid.cols();
+        int startCol = grid.indexOf(0, (byte) 'S');
 
-        // Track timeline counts at each position
-        Map<Integer, Long> timelineCounts = new HashMap<>();
-        timelineCounts.put(startCol, 1L);
+        // Track timeline counts at each position; the two maps swap every row
+        IntLongMap timelineCounts = new IntLongMap(cols), newCounts = new IntLongMap(cols);
+        timelineCounts.put(startCol, 1);
 
         // Process each row starting from row 1
-        for (int row = 1; row < rows; row++) {
-            String line = lines.get(row);
-            Map<Integer, Long> newCounts = new HashMap<>();
+        for (int r = 1; r < grid.rows(); r++) {
+            int line = grid.rowStart(r);
+            newCounts.clear();
 
-            for (Map.Entry<Integer, Long> entry : timelineCounts.entrySet()) {
-                int col = entry.getKey();
-                long count = entry.getValue();
+            for (int i = 0; i < timelineCounts.size(); i++) {
+                int col = timelineCounts.keyAt(i);
+                long count = timelineCounts.valueAt(i);
 
                 if (col < 0 || col >= cols) {
                     continue;
                 }
 
-                char cell = line.charAt(col);
+                byte cell = grid.at(line + col);
 
                 if (cell == '.') {
                     // Beam passes through - timelines continue
-                    newCounts.merge(col, count, Long::sum);
+                    newCounts.add(col, count);
                 } else if (cell == '^') {
                     // Beam hits splitter - each timeline splits into 2
                     if (col - 1 >= 0) {
-                        newCounts.merge(col - 1, count, Long::sum);
+                        newCounts.add(col - 1, count);
                     }
                     if (col + 1 < cols) {
-                        newCounts.merge(col + 1, count, Long::sum);
+                        newCounts.add(col + 1, count);
                     }
                 }
             }
 
+            IntLongMap done = timelineCounts;
             timelineCounts = newCounts;
+            newCounts = done;
             if (timelineCounts.isEmpty()) {
                 break;
             }
         }
 
         // Sum all timeline counts
-        return timelineCounts.values().stream().mapToLong(Long::longValue).sum();
-    }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
+        long total = 0;
+        for (int i = 0; i < timelineCounts.size(); i++) total += timelineCounts.valueAt(i);
+        return total;
     }
 }
\ No newline at end of file
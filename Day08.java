@@ -1,5 +1,8 @@
+import aoc.collections.IntLongMap;
+
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -9,30 +12,113 @@ import java.util.*;
  * Part 1: Connect 1000 closest pairs of junction boxes, multiply sizes of 3 largest circuits
  * Part 2: Connect all junction boxes into one circuit, multiply X coordinates of last pair
  */
-public class Day08 {
+public class Day08 implements Solver<Day08.Junctions>, DiskCache.Snapshot<Day08.Junctions> {
+
+    static final Metrics.Counter EDGES_GENERATED = Metrics.counter("day08.edgesGenerated");
+    static final Metrics.Counter EDGES_SORTED = Metrics.counter("day08.edgesSorted");
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day08.txt"));
+        Input input = Input.map(Paths.get("inputs/day08.txt"));
+        Junctions junctions = parseJunctions(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1(junctions);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2(junctions);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 08: Playground ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
     }
 
-    static long solvePart1(List<String> lines) {
-        int[][] points = parsePoints(lines);
-        int n = points.length;
+    @Override
+    public String title() {
+        return "Playground";
+    }
+
+    @Override
+    public Junctions parse(Input input) {
+        return parseJunctions(input);
+    }
+
+    @Override
+    public long part1(Junctions junctions) {
+        return solvePart1(junctions);
+    }
+
+    @Override
+    public long part2(Junctions junctions) {
+        return solvePart2(junctions);
+    }
+
+    /** Junction box positions and every pair of boxes as {distSq, i, j}, closest first. */
+    record Junctions(int[][] points, List<long[]> edges) {}
 
-        // Calculate all pairwise distances and sort
-        List<long[]> edges = computeEdges(points);
+    @Override
+    public int snapshotVersion() {
+        return 1;
+    }
+
+    /** Point count and coordinates, then edge count and each edge as distSq (long), i, j (int). */
+    @Override
+    public void writeSnapshot(Junctions junctions, DataOutputStream out) throws IOException {
+        out.writeInt(junctions.points().length);
+        for (int[] point : junctions.points()) {
+            for (int coordinate : point) out.writeInt(coordinate);
+        }
+        out.writeInt(junctions.edges().size());
+        for (long[] edge : junctions.edges()) {
+            out.writeLong(edge[0]);
+            out.writeInt((int) edge[1]);
+            out.writeInt((int) edge[2]);
+        }
+    }
+
+    /** Points are copied out; the edges stay in the mapped buffer and are decoded on access. */
+    @Override
+    public Junctions readSnapshot(ByteBuffer buffer) {
+        int n = buffer.getInt(0);
+        int[][] points = new int[n][3];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < 3; k++) points[i][k] = buffer.getInt(4 + 12 * i + 4 * k);
+        }
+        int base = 4 + 12 * n;
+        ByteBuffer edges = buffer.slice(base + 4, 16 * buffer.getInt(base));
+        return new Junctions(points, new MappedEdges(edges));
+    }
+
+    /** Read-only {distSq, i, j} list over 16-byte records in a snapshot. */
+    static final class MappedEdges extends AbstractList<long[]> implements RandomAccess {
+        private final ByteBuffer records;
+
+        MappedEdges(ByteBuffer records) {
+            this.records = records;
+        }
+
+        @Override
+        public long[] get(int index) {
+            int offset = 16 * Objects.checkIndex(index, size());
+            return new long[]{records.getLong(offset), records.getInt(offset + 8), records.getInt(offset + 12)};
+        }
+
+        @Override
+        public int size() {
+            return records.capacity() / 16;
+        }
+    }
+
+    static Junctions parseJunctions(Input input) {
+        int[][] points = parsePoints(input);
+        return new Junctions(points, computeEdges(points));
+    }
+
+    static long solvePart1(Junctions junctions) {
+        int[][] points = junctions.points();
+        List<long[]> edges = junctions.edges();
+        int n = points.length;
 
         // Initialize Union-Find
         UnionFind uf = new UnionFind(n);
@@ -44,26 +130,24 @@ public class Day08 {
         }
 
         // Count circuit sizes
-        Map<Integer, Integer> circuitSizes = new HashMap<>();
+        IntLongMap circuitSizes = new IntLongMap(n);
         for (int i = 0; i < n; i++) {
-            int root = uf.find(i);
-            circuitSizes.merge(root, 1, Integer::sum);
+            circuitSizes.add(uf.find(i), 1);
         }
 
         // Get top 3 sizes
-        List<Integer> sizes = new ArrayList<>(circuitSizes.values());
-        sizes.sort(Collections.reverseOrder());
+        long[] sizes = circuitSizes.values();
+        Arrays.sort(sizes);
+        int k = sizes.length;
 
-        return (long) sizes.get(0) * sizes.get(1) * sizes.get(2);
+        return sizes[k - 1] * sizes[k - 2] * sizes[k - 3];
     }
 
-    static long solvePart2(List<String> lines) {
-        int[][] points = parsePoints(lines);
+    static long solvePart2(Junctions junctions) {
+        int[][] points = junctions.points();
+        List<long[]> edges = junctions.edges();
         int n = points.length;
 
-        // Calculate all pairwise distances and sort
-        List<long[]> edges = computeEdges(points);
-
         // Initialize Union-Find
         UnionFind uf = new UnionFind(n);
 
@@ -87,14 +171,16 @@ public class Day08 {
         return (long) points[lastA][0] * points[lastB][0];
     }
 
-    static int[][] parsePoints(List<String> lines) {
-        int[][] points = new int[lines.size()][3];
-        for (int i = 0; i < lines.size(); i++) {
-            String[] parts = lines.get(i).split(",");
-            points[i][0] = Integer.parseInt(parts[0]);
-            points[i][1] = Integer.parseInt(parts[1]);
-            points[i][2] = Integer.parseInt(parts[2]);
+    static int[][] parsePoints(Input input) {
+        Events.Phase parse = Events.phase(8, Events.Phase.PARSE);
+        input.rewind();
+        int[][] points = new int[input.countLines()][3];
+        for (int i = 0; i < points.length; i++) {
+            points[i][0] = input.nextInt();
+            points[i][1] = input.nextInt();
+            points[i][2] = input.nextInt();
         }
+        Events.finish(parse, input, points.length);
         return points;
     }
 
@@ -112,7 +198,11 @@ public class Day08 {
             }
         }
 
+        EDGES_GENERATED.add(edges.size());
+        Events.Stage sort = Events.stage(8, "edge sort");
         edges.sort(Comparator.comparingLong(a -> a[0]));
+        Events.finish(sort, edges.size());
+        EDGES_SORTED.add(edges.size());
         return edges;
     }
 
@@ -153,11 +243,4 @@ public class Day08 {
             return true;
         }
     }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
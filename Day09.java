@@ -1,8 +1,11 @@
+import aoc.collections.IntList;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * Day 09: Movie Theater
@@ -10,34 +13,104 @@ import java.util.List;
  * Part 1: Find the largest rectangle with red tiles at opposite corners
  * Part 2: Find the largest rectangle using only red and green tiles (inside polygon)
  */
-public class Day09 {
+public class Day09 implements Solver<Day09.Polygon> {
+
+    // Candidate rectangles tested against the polygon boundary
+    static final Metrics.Counter CONTAINMENT_CHECKS = Metrics.counter("day09.containmentChecks");
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day09.txt"));
+        Input input = Input.map(Paths.get("inputs/day09.txt"));
+        Polygon polygon = parsePolygon(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1Staircase(polygon);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2Parallel(polygon);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 09: Movie Theater ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+
+        // Optional cross-check of the fast engines against the brute-force references
+        if (args.length > 0 && args[0].equals("--check")) {
+            long ref1 = solvePart1(input);
+            System.out.println("Check Part 1: " + (ref1 == part1 ? "OK" : "MISMATCH (reference " + ref1 + ")"));
+            long ref2 = solvePart2(input);
+            System.out.println("Check Part 2: " + (ref2 == part2 ? "OK" : "MISMATCH (reference " + ref2 + ")"));
+        }
+    }
+
+    @Override
+    public String title() {
+        return "Movie Theater";
+    }
+
+    @Override
+    public Polygon parse(Input input) {
+        return parsePolygon(input);
+    }
+
+    @Override
+    public long part1(Polygon polygon) {
+        return solvePart1Staircase(polygon);
+    }
+
+    @Override
+    public long part2(Polygon polygon) {
+        return solvePart2Parallel(polygon);
+    }
+
+    @Override
+    public String engine(int part) {
+        return part == 1 ? "staircase" : part == 2 ? "parallel-heap" : "standard";
     }
 
-    static long solvePart1(List<String> lines) {
-        List<int[]> redTiles = parseInput(lines);
+    /**
+     * Red tiles in input order, as coordinate arrays, and the boundary split into
+     * horizontal {y, xStart, xEnd} and vertical {x, yStart, yEnd} segments, stored
+     * as consecutive triples in one int[] each.
+     */
+    record Polygon(int[] xs, int[] ys, int[] hSegments, int[] vSegments) {}
+
+    static Polygon parsePolygon(Input input) {
+        IntList redTiles = parseInput(input);
+        int n = redTiles.size() / 2;
+        int[] xs = new int[n], ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = redTiles.get(2 * i);
+            ys[i] = redTiles.get(2 * i + 1);
+        }
+
+        IntList hSegments = new IntList();
+        IntList vSegments = new IntList();
+        for (int i = 0; i < n; i++) {
+            addSegment(xs[i], ys[i], xs[(i + 1) % n], ys[(i + 1) % n], hSegments, vSegments);
+        }
+        return new Polygon(xs, ys, hSegments.toArray(), vSegments.toArray());
+    }
+
+    /** Appends the boundary edge between two consecutive red tiles as a segment triple. */
+    private static void addSegment(int x1, int y1, int x2, int y2, IntList hSegments, IntList vSegments) {
+        IntList segments = y1 == y2 ? hSegments : vSegments;
+        segments.add(y1 == y2 ? y1 : x1);
+        segments.add(y1 == y2 ? Math.min(x1, x2) : Math.min(y1, y2));
+        segments.add(y1 == y2 ? Math.max(x1, x2) : Math.max(y1, y2));
+    }
+
+    static long solvePart1(Input input) {
+        IntList redTiles = parseInput(input);
+        int n = redTiles.size() / 2;
 
         long maxArea = 0;
-        for (int i = 0; i < redTiles.size(); i++) {
-            int x1 = redTiles.get(i)[0];
-            int y1 = redTiles.get(i)[1];
-            for (int j = i + 1; j < redTiles.size(); j++) {
-                int x2 = redTiles.get(j)[0];
-                int y2 = redTiles.get(j)[1];
+        for (int i = 0; i < n; i++) {
+            int x1 = redTiles.get(2 * i);
+            int y1 = redTiles.get(2 * i + 1);
+            for (int j = i + 1; j < n; j++) {
+                int x2 = redTiles.get(2 * j);
+                int y2 = redTiles.get(2 * j + 1);
                 long area = (long)(Math.abs(x2 - x1) + 1) * (Math.abs(y2 - y1) + 1);
                 if (area > maxArea) {
                     maxArea = area;
@@ -47,35 +120,27 @@ public class Day09 {
         return maxArea;
     }
 
-    static long solvePart2(List<String> lines) {
-        List<int[]> redTiles = parseInput(lines);
-
-        // Build horizontal and vertical segments of the boundary
-        List<int[]> hSegments = new ArrayList<>(); // {y, xStart, xEnd}
-        List<int[]> vSegments = new ArrayList<>(); // {x, yStart, yEnd}
+    static long solvePart2(Input input) {
+        IntList redTiles = parseInput(input);
+        int n = redTiles.size() / 2;
 
-        for (int i = 0; i < redTiles.size(); i++) {
-            int x1 = redTiles.get(i)[0];
-            int y1 = redTiles.get(i)[1];
-            int x2 = redTiles.get((i + 1) % redTiles.size())[0];
-            int y2 = redTiles.get((i + 1) % redTiles.size())[1];
-
-            if (y1 == y2) {
-                // Horizontal segment
-                hSegments.add(new int[]{y1, Math.min(x1, x2), Math.max(x1, x2)});
-            } else {
-                // Vertical segment
-                vSegments.add(new int[]{x1, Math.min(y1, y2), Math.max(y1, y2)});
-            }
+        // Build horizontal {y, xStart, xEnd} and vertical {x, yStart, yEnd} segments of the boundary
+        IntList hSegmentList = new IntList();
+        IntList vSegmentList = new IntList();
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            addSegment(redTiles.get(2 * i), redTiles.get(2 * i + 1),
+                    redTiles.get(2 * next), redTiles.get(2 * next + 1), hSegmentList, vSegmentList);
         }
+        int[] hSegments = hSegmentList.toArray(), vSegments = vSegmentList.toArray();
 
-        long maxArea = 0;
-        for (int i = 0; i < redTiles.size(); i++) {
-            int x1 = redTiles.get(i)[0];
-            int y1 = redTiles.get(i)[1];
-            for (int j = i + 1; j < redTiles.size(); j++) {
-                int x2 = redTiles.get(j)[0];
-                int y2 = redTiles.get(j)[1];
+        long maxArea = 0, checks = 0;
+        for (int i = 0; i < n; i++) {
+            int x1 = redTiles.get(2 * i);
+            int y1 = redTiles.get(2 * i + 1);
+            for (int j = i + 1; j < n; j++) {
+                int x2 = redTiles.get(2 * j);
+                int y2 = redTiles.get(2 * j + 1);
 
                 // Skip degenerate rectangles
                 if (x1 == x2 || y1 == y2) continue;
@@ -84,6 +149,7 @@ public class Day09 {
 
                 // Only check if potentially better
                 if (area <= maxArea) continue;
+                checks++;
 
                 // Check if no boundary segment crosses through the interior
                 if (segmentsCrossRectInterior(x1, y1, x2, y2, hSegments, vSegments)) continue;
@@ -98,19 +164,218 @@ public class Day09 {
                 maxArea = area;
             }
         }
+        CONTAINMENT_CHECKS.add(checks);
         return maxArea;
     }
 
+    /**
+     * Part 1 without the all-pairs scan.
+     *
+     * A corner pair where one tile is lower-left of the other can always be improved by
+     * moving the lower-left corner to a tile that dominates it (smaller x and smaller y),
+     * and the upper-right corner likewise. So the best pair lies on the two Pareto
+     * staircases of the point set. Between two staircases the best partner index is
+     * monotone, which a divide-and-conquer search exploits. The other diagonal
+     * orientation is handled by mirroring y. O(n log n) overall, dominated by the sort.
+     *
+     * Note: convex hull vertices alone are not enough - e.g. with tiles
+     * (0,100), (100,0), (50,51), (1000,1000) the best pair uses the interior tile (50,51).
+     */
+    static long solvePart1Staircase(Polygon polygon) {
+        int[] xs = polygon.xs(), ys = polygon.ys();
+        int n = xs.length;
+        if (n < 2) return 0;
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = packPoint(xs[i], ys[i]);
+        long best = maxDominatingPairArea(keys);
+
+        // Mirror y so the upper-left / lower-right orientation becomes the same problem
+        for (int i = 0; i < n; i++) keys[i] = packPoint(xs[i], -ys[i]);
+        return Math.max(best, maxDominatingPairArea(keys));
+    }
+
+    /**
+     * Largest (qx - px + 1) * (qy - py + 1) over pairs where q dominates p.
+     * Sorts the packed points in place.
+     */
+    static long maxDominatingPairArea(long[] keys) {
+        Arrays.sort(keys); // by x, then y
+
+        // Lower-left staircase: scanning by x ascending, keep points with a new minimum y
+        int[] lowX = new int[keys.length], lowY = new int[keys.length];
+        int lowCount = 0;
+        for (long key : keys) {
+            int x = unpackX(key), y = unpackY(key);
+            if (lowCount == 0 || y < lowY[lowCount - 1]) {
+                lowX[lowCount] = x;
+                lowY[lowCount] = y;
+                lowCount++;
+            }
+        }
+
+        // Upper-right staircase: scanning by x descending, keep points with a new maximum y
+        int[] highX = new int[keys.length], highY = new int[keys.length];
+        int highCount = 0;
+        for (int i = keys.length - 1; i >= 0; i--) {
+            int x = unpackX(keys[i]), y = unpackY(keys[i]);
+            if (highCount == 0 || y > highY[highCount - 1]) {
+                highX[highCount] = x;
+                highY[highCount] = y;
+                highCount++;
+            }
+        }
+        // Reverse so both staircases run x ascending, y descending
+        for (int i = 0, j = highCount - 1; i < j; i++, j--) {
+            int tx = highX[i]; highX[i] = highX[j]; highX[j] = tx;
+            int ty = highY[i]; highY[i] = highY[j]; highY[j] = ty;
+        }
+
+        return bestStaircasePair(lowX, lowY, 0, lowCount - 1, highX, highY, 0, highCount - 1);
+    }
+
+    /**
+     * Divide and conquer over the lower staircase: the best upper partner of lower[mid]
+     * bounds the search range of both halves (the optimum index is non-decreasing).
+     */
+    private static long bestStaircasePair(int[] lowX, int[] lowY, int lo, int hi,
+                                          int[] highX, int[] highY, int optLo, int optHi) {
+        if (lo > hi) return 0;
+        int mid = (lo + hi) >>> 1;
+        long best = Long.MIN_VALUE;
+        int bestIdx = optLo;
+        for (int j = optLo; j <= optHi; j++) {
+            long dx = (long) highX[j] - lowX[mid] + 1;
+            long dy = (long) highY[j] - lowY[mid] + 1;
+            long area = dx * dy;
+            if (dx < 0 && dy < 0) area = Long.MIN_VALUE; // not a valid pairing
+            if (area > best) {
+                best = area;
+                bestIdx = j;
+            }
+        }
+        best = Math.max(best, bestStaircasePair(lowX, lowY, lo, mid - 1, highX, highY, optLo, bestIdx));
+        return Math.max(best, bestStaircasePair(lowX, lowY, mid + 1, hi, highX, highY, bestIdx, optHi));
+    }
+
+    // Pack (x, y) so that signed long order equals (x, y) lexicographic order
+    private static long packPoint(int x, int y) {
+        return ((long) x << 32) | ((y ^ 0x80000000) & 0xFFFFFFFFL);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int unpackY(long key) {
+        return (int) key ^ 0x80000000;
+    }
+
+    /**
+     * Part 2 with candidates checked in decreasing area order.
+     *
+     * Every pair (i, j) with i < j belongs to anchor i. Anchors are sorted by a bound
+     * on their candidates' area, the rectangle to the farthest corner of the bounding
+     * box, and handed out to workers through a shared cursor. Each
+     * worker heapifies its anchor's candidates and pops them largest first, so the
+     * first one passing the containment check is the anchor's best and the rest are
+     * skipped. The global best is an atomic shared by all workers: an anchor (and,
+     * because anchors are sorted, every anchor after it) is dropped as soon as its
+     * bound cannot beat it.
+     */
+    static long solvePart2Parallel(Polygon polygon) {
+        int[] xs = polygon.xs(), ys = polygon.ys();
+        int n = xs.length;
+        int[] hSegments = polygon.hSegments(), vSegments = polygon.vSegments();
+
+        // Upper bound per anchor in O(1): the rectangle to the farthest corner of the
+        // tiles' bounding box, so a cut-off anchor costs nothing beyond this pass
+        int minX = Arrays.stream(xs).min().orElse(0), maxX = Arrays.stream(xs).max().orElse(0);
+        int minY = Arrays.stream(ys).min().orElse(0), maxY = Arrays.stream(ys).max().orElse(0);
+        long[] bound = new long[n];
+        for (int i = 0; i < n; i++) {
+            long width = Math.max(xs[i] - minX, maxX - xs[i]) + 1, height = Math.max(ys[i] - minY, maxY - ys[i]) + 1;
+            bound[i] = width * height;
+        }
+        int[] anchors = IntStream.range(0, n).boxed()
+                .sorted((a, b) -> Long.compare(bound[b], bound[a]))
+                .mapToInt(Integer::intValue).toArray();
+
+        AtomicLong best = new AtomicLong();
+        AtomicInteger cursor = new AtomicInteger();
+        int workers = Runtime.getRuntime().availableProcessors();
+
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            long[] heapArea = new long[n];
+            int[] heapIdx = new int[n];
+            long checks = 0;
+            int next;
+            while ((next = cursor.getAndIncrement()) < n) {
+                int i = anchors[next];
+                // Anchors are in decreasing bound order: nothing left can win
+                if (bound[i] <= best.get()) break;
+
+                int size = 0;
+                long threshold = best.get();
+                for (int j = i + 1; j < n; j++) {
+                    if (xs[i] == xs[j] || ys[i] == ys[j]) continue;
+                    long area = rectArea(xs, ys, i, j);
+                    if (area > threshold) {
+                        heapArea[size] = area;
+                        heapIdx[size] = j;
+                        size++;
+                    }
+                }
+                for (int k = size / 2 - 1; k >= 0; k--) siftDown(heapArea, heapIdx, k, size);
+
+                while (size > 0 && heapArea[0] > best.get()) {
+                    long area = heapArea[0];
+                    int j = heapIdx[0];
+                    size--;
+                    heapArea[0] = heapArea[size];
+                    heapIdx[0] = heapIdx[size];
+                    siftDown(heapArea, heapIdx, 0, size);
+
+                    checks++;
+                    if (segmentsCrossRectInterior(xs[i], ys[i], xs[j], ys[j], hSegments, vSegments)) continue;
+                    if (!pointInsidePolygon((xs[i] + xs[j]) / 2, (ys[i] + ys[j]) / 2, vSegments)) continue;
+
+                    best.accumulateAndGet(area, Math::max);
+                    break; // Largest valid candidate of this anchor
+                }
+            }
+            CONTAINMENT_CHECKS.add(checks);
+        });
+        return best.get();
+    }
+
+    private static long rectArea(int[] xs, int[] ys, int i, int j) {
+        return (long) (Math.abs(xs[j] - xs[i]) + 1) * (Math.abs(ys[j] - ys[i]) + 1);
+    }
+
+    // Max-heap on area, with the partner index carried alongside
+    private static void siftDown(long[] area, int[] idx, int k, int size) {
+        while (true) {
+            int child = 2 * k + 1;
+            if (child >= size) return;
+            if (child + 1 < size && area[child + 1] > area[child]) child++;
+            if (area[k] >= area[child]) return;
+            long ta = area[k]; area[k] = area[child]; area[child] = ta;
+            int ti = idx[k]; idx[k] = idx[child]; idx[child] = ti;
+            k = child;
+        }
+    }
+
     static boolean segmentsCrossRectInterior(int rx1, int ry1, int rx2, int ry2,
-                                             List<int[]> hSegs, List<int[]> vSegs) {
+                                             int[] hSegs, int[] vSegs) {
         int minX = Math.min(rx1, rx2);
         int maxX = Math.max(rx1, rx2);
         int minY = Math.min(ry1, ry2);
         int maxY = Math.max(ry1, ry2);
 
         // Check horizontal segments
-        for (int[] seg : hSegs) {
-            int segY = seg[0], segX1 = seg[1], segX2 = seg[2];
+        for (int k = 0; k < hSegs.length; k += 3) {
+            int segY = hSegs[k], segX1 = hSegs[k + 1], segX2 = hSegs[k + 2];
             // Does this horizontal segment pass through interior?
             if (minY < segY && segY < maxY) {
                 // Check if segment x-range overlaps with interior x-range
@@ -121,8 +386,8 @@ public class Day09 {
         }
 
         // Check vertical segments
-        for (int[] seg : vSegs) {
-            int segX = seg[0], segY1 = seg[1], segY2 = seg[2];
+        for (int k = 0; k < vSegs.length; k += 3) {
+            int segX = vSegs[k], segY1 = vSegs[k + 1], segY2 = vSegs[k + 2];
             // Does this vertical segment pass through interior?
             if (minX < segX && segX < maxX) {
                 // Check if segment y-range overlaps with interior y-range
@@ -135,11 +400,11 @@ public class Day09 {
         return false;
     }
 
-    static boolean pointInsidePolygon(int px, int py, List<int[]> vSegs) {
+    static boolean pointInsidePolygon(int px, int py, int[] vSegs) {
         // Ray casting: count vertical crossings to the left
         int crossings = 0;
-        for (int[] seg : vSegs) {
-            int segX = seg[0], segY1 = seg[1], segY2 = seg[2];
+        for (int k = 0; k < vSegs.length; k += 3) {
+            int segX = vSegs[k], segY1 = vSegs[k + 1], segY2 = vSegs[k + 2];
             if (segX < px) { // Segment is to the left
                 // Check if horizontal ray at py crosses this vertical segment
                 if (segY1 < py && py < segY2) {
@@ -150,21 +415,16 @@ public class Day09 {
         return crossings % 2 == 1;
     }
 
-    static List<int[]> parseInput(List<String> lines) {
-        List<int[]> tiles = new ArrayList<>();
-        for (String line : lines) {
-            String[] parts = line.split(",");
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            tiles.add(new int[]{x, y});
+    /** Red tiles as x, y pairs: tile i is at (get(2 * i), get(2 * i + 1)). */
+    static IntList parseInput(Input input) {
+        Events.Phase parse = Events.phase(9, Events.Phase.PARSE);
+        IntList tiles = new IntList();
+        input.rewind();
+        while (input.hasNextNumber()) {
+            tiles.add(input.nextInt());
+            tiles.add(input.nextInt());
         }
+        Events.finish(parse, input, tiles.size() / 2);
         return tiles;
     }
-
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
-    }
 }
\ No newline at end of file
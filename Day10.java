@@ -1,8 +1,7 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.*;
+import java.util.stream.IntStream;
 
 /**
  * Day 10: Factory
@@ -10,52 +9,275 @@ import java.util.regex.*;
  * Part 1: Configure indicator lights using XOR toggles - find minimum button presses (GF(2) linear algebra)
  * Part 2: Configure joltage counters using additive increments - find minimum button presses (ILP)
  */
-public class Day10 {
+public class Day10 implements Solver<List<Day10.Machine>> {
 
-    public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day10.txt"));
+    // Nodes visited and branches cut, in search (reference part 2) and IlpSolver (branch and bound)
+    static final Metrics.Counter SEARCH_NODES = Metrics.counter("day10.searchNodes");
+    static final Metrics.Counter SEARCH_PRUNED = Metrics.counter("day10.searchPruned");
 
-        long part1 = 0, part2 = 0;
+    /** One parsed input line: light pattern (0/1), button wiring and joltage targets. */
+    record Machine(int line, int[] lights, int[][] buttons, int[] joltage) {}
 
+    public static void main(String[] args) throws IOException {
         long start = System.nanoTime();
-        for (String line : lines) {
-            Object[] parsed = parse(line);
-            int[] target = (int[]) parsed[0];
-            int[][] btns = (int[][]) parsed[1];
-            part1 += solvePart1(target, btns);
-        }
-        long time1 = System.nanoTime() - start;
+        List<Machine> machines = parseMachines(Input.map(Paths.get("inputs/day10.txt")));
+        long parseTime = System.nanoTime() - start;
 
+        // Both parts for every machine, machines spread over the fork/join pool
+        int count = machines.size();
+        long[] answer1 = new long[count], answer2 = new long[count];
+        long[] nanos1 = new long[count], nanos2 = new long[count];
         start = System.nanoTime();
-        for (String line : lines) {
-            Object[] parsed = parse(line);
-            int[][] btns = (int[][]) parsed[1];
-            int[] joltage = (int[]) parsed[2];
-            part2 += solvePart2(joltage, btns);
-        }
-        long time2 = System.nanoTime() - start;
+        IntStream.range(0, count).parallel().forEach(i -> {
+            Machine machine = machines.get(i);
+            long t0 = System.nanoTime();
+            answer1[i] = solvePart1Gf2(machine.lights(), machine.buttons());
+            long t1 = System.nanoTime();
+            answer2[i] = solvePart2Ilp(machine.joltage(), machine.buttons());
+            nanos1[i] = t1 - t0;
+            nanos2[i] = System.nanoTime() - t1;
+        });
+        long wallTime = System.nanoTime() - start;
 
+        long part1 = Arrays.stream(answer1).sum(), part2 = Arrays.stream(answer2).sum();
         System.out.println("=== Day 10: Factory ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(Arrays.stream(nanos1).sum()) + " summed)");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(Arrays.stream(nanos2).sum()) + " summed)");
+        System.out.println("Parsed " + count + " machines in " + Solver.formatTime(parseTime) + ", solved in "
+                + Solver.formatTime(wallTime) + " wall on " + Runtime.getRuntime().availableProcessors() + " cores");
+        printSlowest(machines, nanos1, nanos2, 5);
+
+        // Optional cross-check of the fast engines against the brute-force references
+        if (args.length > 0 && args[0].equals("--check")) {
+            long ref1 = 0, ref2 = 0;
+            for (Machine machine : machines) {
+                ref1 += solvePart1(machine.lights(), machine.buttons());
+                ref2 += solvePart2(machine.joltage(), machine.buttons());
+            }
+            System.out.println("Check Part 1: " + (ref1 == part1 ? "OK" : "MISMATCH (reference " + ref1 + ")"));
+            System.out.println("Check Part 2: " + (ref2 == part2 ? "OK" : "MISMATCH (reference " + ref2 + ")"));
+            checkPart1Methods(machines);
+            checkIlpDrift();
+        }
+        if (args.length > 0 && args[0].equals("--bench")) {
+            benchmarkPart2(machines);
+        }
+    }
+
+    @Override
+    public String title() {
+        return "Factory";
     }
-    static Object[] parse(String line) {
-        // Returns: [target int[], buttons int[][], joltage int[]]
-        Matcher m = Pattern.compile("\\[([.#]+)]|\\(([0-9,]+)\\)|\\{([0-9,]+)}").matcher(line);
-        int[] target = null, joltage = null;
+
+    @Override
+    public List<Machine> parse(Input input) {
+        return List.copyOf(parseMachines(input));
+    }
+
+    @Override
+    public long part1(List<Machine> machines) {
+        return machines.parallelStream()
+                .mapToLong(machine -> solvePart1Gf2(machine.lights(), machine.buttons()))
+                .sum();
+    }
+
+    @Override
+    public long part2(List<Machine> machines) {
+        return machines.parallelStream()
+                .mapToLong(machine -> solvePart2Ilp(machine.joltage(), machine.buttons()))
+                .sum();
+    }
+
+    @Override
+    public String engine(int part) {
+        return part == 1 ? "gf2" : part == 2 ? "ilp" : "standard";
+    }
+
+    private static void printSlowest(List<Machine> machines, long[] nanos1, long[] nanos2, int limit) {
+        System.out.println("Slowest machines:");
+        IntStream.range(0, machines.size()).boxed()
+                .sorted((a, b) -> Long.compare(nanos1[b] + nanos2[b], nanos1[a] + nanos2[a]))
+                .limit(limit)
+                .forEach(i -> {
+                    Machine machine = machines.get(i);
+                    System.out.println(String.format("  line %4d: %2d buttons, %2d counters - part 1 %s, part 2 %s",
+                            machine.line(), machine.buttons().length, machine.joltage().length,
+                            Solver.formatTime(nanos1[i]), Solver.formatTime(nanos2[i])));
+                });
+    }
+
+    /**
+     * Single pass over the input bytes, no regex or intermediate strings:
+     * "[.##.] (3) (1,3) (2) {3,5,4,7}" per line.
+     */
+    static List<Machine> parseMachines(Input input) {
+        Events.Phase parse = Events.phase(10, Events.Phase.PARSE);
+        List<Machine> machines = new ArrayList<>();
+        int[] numbers = new int[16];
         List<int[]> buttons = new ArrayList<>();
-        while (m.find()) {
-            if (m.group(1) != null) { // [.##.]
-                String s = m.group(1);
-                target = new int[s.length()];
-                for (int i = 0; i < s.length(); i++) target[i] = s.charAt(i) == '#' ? 1 : 0;
-            } else if (m.group(2) != null) { // (0,1,2)
-                buttons.add(Arrays.stream(m.group(2).split(",")).mapToInt(Integer::parseInt).toArray());
-            } else { // {3,5,4}
-                joltage = Arrays.stream(m.group(3).split(",")).mapToInt(Integer::parseInt).toArray();
+        int line = 0;
+        input.rewind();
+        while (input.hasMore()) {
+            line++;
+            int[] lights = null, joltage = null;
+            buttons.clear();
+            int end = input.lineEnd();
+            while (input.position() < end) {
+                int pos = input.position();
+                byte b = input.at(pos);
+                if (b == '[') {
+                    input.skip(']');
+                    lights = new int[input.position() - pos - 2];
+                    for (int i = 0; i < lights.length; i++) lights[i] = input.at(pos + 1 + i) == '#' ? 1 : 0;
+                } else if (b == '(' || b == '{') {
+                    char close = b == '(' ? ')' : '}';
+                    int size = 0;
+                    input.position(pos + 1);
+                    while (input.peek() != close) {
+                        if (size == numbers.length) numbers = Arrays.copyOf(numbers, size * 2);
+                        numbers[size++] = input.nextInt();
+                        if (input.peek() == ',') input.skip(',');
+                    }
+                    input.skip(close);
+                    if (b == '(') buttons.add(Arrays.copyOf(numbers, size));
+                    else joltage = Arrays.copyOf(numbers, size);
+                } else {
+                    input.position(pos + 1);
+                }
+            }
+            input.nextLine();
+            if (lights != null) machines.add(new Machine(line, lights, buttons.toArray(new int[0][]), joltage));
+        }
+        Events.finish(parse, input, machines.size());
+        return machines;
+    }
+
+    /**
+     * Every Part 1 strategy, forced, against the automatic choice: on the real machines
+     * and on generated sparse 64-button ones (three lights per button, 16 to 48 lights),
+     * where plain enumeration gets slow and the information sets take over.
+     */
+    static void checkPart1Methods(List<Machine> machines) {
+        List<int[]> targets = new ArrayList<>();
+        List<int[][]> wiring = new ArrayList<>();
+        for (Machine machine : machines) {
+            targets.add(machine.lights());
+            wiring.add(machine.buttons());
+        }
+        Random random = new Random(2025);
+        for (int lights = 16; lights <= 48; lights += 8) {
+            for (int k = 0; k < 4; k++) {
+                int[][] btns = new int[64][];
+                int[] target = new int[lights];
+                for (int j = 0; j < btns.length; j++) {
+                    btns[j] = random.ints(0, lights).distinct().limit(3).sorted().toArray();
+                    if (random.nextInt(3) == 0) for (int idx : btns[j]) target[idx] ^= 1;
+                }
+                targets.add(target);
+                wiring.add(btns);
+            }
+        }
+
+        int mismatches = 0;
+        EnumMap<Gf2Method, Long> nanos = new EnumMap<>(Gf2Method.class);
+        for (int i = 0; i < targets.size(); i++) {
+            int expected = solvePart1Gf2(targets.get(i), wiring.get(i));
+            for (Gf2Method method : Gf2Method.values()) {
+                if (method == Gf2Method.SYNDROME && targets.get(i).length > 24) continue; // Rank may exceed 24
+                long t0 = System.nanoTime();
+                int actual = solvePart1Gf2(targets.get(i), wiring.get(i), method);
+                nanos.merge(method, System.nanoTime() - t0, Long::sum);
+                if (actual != expected) {
+                    mismatches++;
+                    System.out.println("  machine " + i + ": " + method + " gives " + actual + ", expected " + expected);
+                }
             }
         }
-        return new Object[]{target, buttons.toArray(new int[0][]), joltage};
+        StringBuilder times = new StringBuilder();
+        nanos.forEach((method, time) -> times.append(", ").append(method).append(' ').append(Solver.formatTime(time)));
+        System.out.println("Check Part 1 strategies: " + (mismatches == 0 ? "OK" : mismatches + " MISMATCHES")
+                + " on " + targets.size() + " machines" + times);
+    }
+
+    /**
+     * The ILP on a relaxation that looks integral but is not feasible once rounded, as
+     * floating-point drift can leave it: the root of x0 + x1 = 3, x1 + x2 = 2 reports
+     * (2, 1, 0) instead of (1, 2, 0). The node must be branched, not dropped.
+     */
+    static void checkIlpDrift() {
+        int[] target = {3, 2};
+        int[][] btns = {{0}, {0, 1}, {1}};
+        IlpSolver drifting = new IlpSolver(target, btns) {
+            boolean root = true;
+
+            @Override
+            Node relax(long[] lower, long[] upper) {
+                Node node = super.relax(lower, upper);
+                if (!root || node == null) return node;
+                root = false;
+                return new Node(node.lower(), node.upper(), node.bound(), new double[]{2, 1 + 1e-9, 0});
+            }
+        };
+        long actual = drifting.solve(Long.MAX_VALUE);
+        System.out.println("Check Part 2 drift: " + (actual == 3 ? "OK" : "MISMATCH (" + actual + ", expected 3)"));
+    }
+
+    /**
+     * Compares the Part 2 engines on the real input and on generated machines with
+     * more free variables than the enumeration search can handle.
+     */
+    static void benchmarkPart2(List<Machine> machines) {
+        List<int[]> targets = new ArrayList<>();
+        List<int[][]> wiring = new ArrayList<>();
+        for (Machine machine : machines) {
+            targets.add(machine.joltage());
+            wiring.add(machine.buttons());
+        }
+
+        System.out.println();
+        System.out.println("--- Part 2 engines on inputs/day10.txt ---");
+        long[] searched = new long[targets.size()];
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < targets.size(); i++) total += searched[i] = solvePart2(targets.get(i), wiring.get(i));
+        System.out.println("search      " + total + " (took " + Solver.formatTime(System.nanoTime() - start) + ")");
+        benchmarkEngine("exact", targets, wiring, (t, b, i) -> solvePart2Exact(t, b));
+        benchmarkEngine("ilp", targets, wiring, (t, b, i) -> solvePart2Ilp(t, b));
+        benchmarkEngine("ilp+warm", targets, wiring, (t, b, i) -> solvePart2Ilp(t, b, searched[i]));
+
+        // Harder machines: 10-12 counters, 5-7 free variables, presses up to 40
+        Random random = new Random(2025);
+        List<int[]> hardTargets = new ArrayList<>();
+        List<int[][]> hardMachines = new ArrayList<>();
+        for (int k = 0; k < 50; k++) {
+            int m = 10 + random.nextInt(3), n = m + 5 + random.nextInt(3);
+            int[][] btns = new int[n][];
+            int[] target = new int[m];
+            for (int i = 0; i < n; i++) {
+                btns[i] = random.ints(0, m).distinct().limit(2 + random.nextInt(4)).sorted().toArray();
+                int presses = random.nextInt(41);
+                for (int idx : btns[i]) target[idx] += presses;
+            }
+            hardTargets.add(target);
+            hardMachines.add(btns);
+        }
+        System.out.println("--- Part 2 engines on 50 generated machines (5-7 free variables) ---");
+        System.out.println("search      skipped (maxV^free combinations)");
+        System.out.println("exact       skipped (boxes over 2^24 go to the ilp engine)");
+        benchmarkEngine("ilp", hardTargets, hardMachines, (t, b, i) -> solvePart2Ilp(t, b));
+    }
+
+    interface Part2Engine {
+        long solve(int[] target, int[][] btns, int index);
+    }
+
+    private static void benchmarkEngine(String name, List<int[]> targets, List<int[][]> machines, Part2Engine engine) {
+        // One warmup pass, then the timed pass
+        for (int i = 0; i < targets.size(); i++) engine.solve(targets.get(i), machines.get(i), i);
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < targets.size(); i++) total += engine.solve(targets.get(i), machines.get(i), i);
+        System.out.println(String.format("%-11s ", name) + total + " (took " + Solver.formatTime(System.nanoTime() - start) + ")");
     }
 
     // Part 1: XOR system - brute force all 2^n button combinations
@@ -71,6 +293,279 @@ public class Day10 {
         return min;
     }
 
+    /**
+     * Part 1 as a GF(2) linear system instead of trying every button mask.
+     *
+     * Button columns are packed into long bitsets (one bit per light) and reduced
+     * by XOR elimination, remembering which buttons each basis vector is made of.
+     * That gives a particular solution plus one null-space vector per dependent
+     * button. The minimum-weight solution is then the lightest of the 2^nullity
+     * combinations, found by enumerating combinations by increasing size (each
+     * dependent button adds exactly one to the weight, so sizes stop at the current
+     * best), by the same enumeration over several disjoint information sets for wide
+     * sparse machines, or by a BFS table over the 2^rank pivot patterns, whichever
+     * chooseGf2Method estimates cheapest once the cheap small sizes are enumerated.
+     * Supports up to 64 lights and 64 buttons.
+     */
+    static int solvePart1Gf2(int[] target, int[][] btns) {
+        return solvePart1Gf2(target, btns, null);
+    }
+
+    /** The GF(2) minimum-weight strategies; solvePart1Gf2 picks one by estimated work. */
+    enum Gf2Method { ENUMERATE, SYNDROME, INFORMATION_SETS }
+
+    /** As solvePart1Gf2, with the strategy forced unless method is null (used by --check). */
+    static int solvePart1Gf2(int[] target, int[][] btns, Gf2Method method) {
+        int n = btns.length, lights = target.length;
+        if (n > 64 || lights > 64) throw new IllegalArgumentException("GF(2) solver supports up to 64 buttons and lights");
+
+        long goal = 0;
+        for (int i = 0; i < lights; i++) if (target[i] == 1) goal |= 1L << i;
+
+        // basis[bit]: reduced column whose highest light is 'bit'; combo[bit]: buttons it is made of
+        long[] basis = new long[64], combo = new long[64];
+        long[] nullVecs = new long[n];
+        int nullity = 0;
+        long pivotButtons = 0;
+        for (int j = 0; j < n; j++) {
+            long col = 0;
+            for (int idx : btns[j]) if (idx < lights) col ^= 1L << idx;
+            long mix = 1L << j;
+            while (col != 0) {
+                int bit = 63 - Long.numberOfLeadingZeros(col);
+                if (basis[bit] == 0) {
+                    basis[bit] = col;
+                    combo[bit] = mix;
+                    pivotButtons |= 1L << j;
+                    break;
+                }
+                col ^= basis[bit];
+                mix ^= combo[bit];
+            }
+            // Dependent button: its own bit plus pivot buttons only
+            if (col == 0) nullVecs[nullity++] = mix;
+        }
+
+        // Particular solution, built from pivot buttons only
+        long x0 = 0;
+        for (long rest = goal; rest != 0; ) {
+            int bit = 63 - Long.numberOfLeadingZeros(rest);
+            if (basis[bit] == 0) return Integer.MAX_VALUE; // Target not reachable
+            rest ^= basis[bit];
+            x0 ^= combo[bit];
+        }
+
+        int rank = Long.bitCount(pivotButtons);
+        if (nullity == 0) return Long.bitCount(x0);
+
+        // Greedy descent to a light solution: a tight bound keeps the work estimates honest
+        long light = x0;
+        for (boolean improved = true; improved; ) {
+            improved = false;
+            for (int i = 0; i < nullity; i++) {
+                if (Long.bitCount(light ^ nullVecs[i]) < Long.bitCount(light)) {
+                    light ^= nullVecs[i];
+                    improved = true;
+                }
+            }
+        }
+        int best = Long.bitCount(light);
+
+        List<InformationSet> sets = informationSets(x0, nullVecs, nullity, pivotButtons);
+        int size = 1;
+        if (method == null) {
+            // Sizes costing under 1/64 of the chosen strategy are enumerated first: they
+            // often lower best, and every estimate with it
+            for (; size < best; size++) {
+                long[] costs = gf2Costs(nullity, rank, best, sets, size);
+                method = chooseGf2Method(costs);
+                long sizeCost = ballShell(nullity, size, size);
+                if (method != Gf2Method.ENUMERATE && saturatingMultiply(sizeCost, 64) > costs[method.ordinal()]) {
+                    break;
+                }
+                best = minWeightOfSize(nullVecs, nullity, 0, size, x0, best);
+            }
+            if (size >= best) return best;
+        }
+        return switch (method) {
+            case ENUMERATE -> {
+                for (; size < best; size++) best = minWeightOfSize(nullVecs, nullity, 0, size, x0, best);
+                yield best;
+            }
+            case SYNDROME -> {
+                if (rank > 24) throw new IllegalArgumentException("Syndrome table needs rank <= 24, got " + rank);
+                yield minWeightBySyndrome(x0, nullVecs, nullity, pivotButtons, rank, best);
+            }
+            case INFORMATION_SETS -> minWeightByInformationSets(sets, nullity, best);
+        };
+    }
+
+    /**
+     * Estimated work per strategy, indexed by Gf2Method ordinal and counted in
+     * combinations visited. Enumeration tries every set of from to best - 1 null
+     * vectors (smaller sets are done). The syndrome BFS reaches at most that many of
+     * the 2^rank pivot patterns, each expanded by nullity generators, after
+     * allocating and clearing a table and queue for all of them. The information
+     * sets try subsets of each set until their lower bound reaches best.
+     *
+     * All three assume best never improves, so they overstate the work. Sparse
+     * 64-button machines near 32 lights with two lights per button and a minimum
+     * weight above 10 stay hard for every strategy: 300 to 600 ms each, not
+     * microseconds.
+     */
+    static long[] gf2Costs(int nullity, int rank, int best, List<InformationSet> sets, int from) {
+        long enumerate = ballShell(nullity, from, best - 1);
+        long syndrome = rank <= 24
+                ? saturatingMultiply(Math.min(1L << rank, enumerate), nullity) + (8L << rank) : Long.MAX_VALUE;
+        int rounds = 0;
+        while (lowerBound(sets, rounds) < best) rounds++;
+        long informationSets = saturatingMultiply(ballSize(nullity, rounds - 1), sets.size());
+        return new long[]{enumerate, syndrome, informationSets};
+    }
+
+    /** The strategy with the least estimated work in costs, ties going to the simpler one. */
+    static Gf2Method chooseGf2Method(long[] costs) {
+        Gf2Method best = Gf2Method.ENUMERATE;
+        for (Gf2Method method : Gf2Method.values()) if (costs[method.ordinal()] < costs[best.ordinal()]) best = method;
+        return best;
+    }
+
+    // Number of subsets of 'from' to 'radius' out of k items, saturating like ballSize
+    private static long ballShell(int k, int from, int radius) {
+        long outer = ballSize(k, radius);
+        return outer == Long.MAX_VALUE / 4 ? outer : outer - ballSize(k, from - 1);
+    }
+
+    // Number of subsets of at most 'radius' out of k items, saturating at Long.MAX_VALUE / 4
+    private static long ballSize(int k, int radius) {
+        long cap = Long.MAX_VALUE / 4, total = 0, c = 1;
+        for (int w = 0; w <= radius && w <= k; w++) {
+            total += c;
+            if (total >= cap) return cap;
+            // c * (k - w) / (w + 1) is exact; stop before the product overflows
+            if (c > cap / Math.max(1, k - w)) return cap;
+            c = c * (k - w) / (w + 1);
+        }
+        return total;
+    }
+
+    private static long saturatingMultiply(long a, long b) {
+        return b != 0 && a > (Long.MAX_VALUE / 4) / b ? Long.MAX_VALUE / 4 : a * b;
+    }
+
+    // Lightest x0 ^ (XOR of exactly 'left' more vectors from vecs[from..])
+    private static int minWeightOfSize(long[] vecs, int count, int from, int left, long acc, int best) {
+        if (left == 0) return Math.min(best, Long.bitCount(acc));
+        for (int i = from; i <= count - left; i++) {
+            best = minWeightOfSize(vecs, count, i + 1, left - 1, acc ^ vecs[i], best);
+        }
+        return best;
+    }
+
+    /**
+     * dist[z] = fewest dependent buttons whose pivot pattern XORs to z (BFS over 2^rank
+     * states). The total weight is that count plus the pivot buttons still pressed;
+     * the BFS stops once its level alone cannot beat the best total.
+     */
+    private static int minWeightBySyndrome(long x0, long[] nullVecs, int nullity, long pivotButtons, int rank,
+            int best) {
+        int[] gens = new int[nullity];
+        for (int i = 0; i < nullity; i++) gens[i] = compress(nullVecs[i], pivotButtons);
+        int base = compress(x0, pivotButtons);
+
+        int states = 1 << rank;
+        byte[] dist = new byte[states];
+        Arrays.fill(dist, (byte) -1);
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        dist[0] = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int z = queue[head++];
+            if (dist[z] >= best) break;
+            best = Math.min(best, dist[z] + Integer.bitCount(base ^ z));
+            for (int g : gens) {
+                int next = z ^ g;
+                if (dist[next] < 0) {
+                    dist[next] = (byte) (dist[z] + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Gather the bits of 'value' selected by 'mask' into the low bits
+    private static int compress(long value, long mask) {
+        int out = 0, pos = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            if ((value & Long.lowestOneBit(m)) != 0) out |= 1 << pos;
+            pos++;
+        }
+        return out;
+    }
+
+    /**
+     * One information set of the solution space x0 ^ span(nullVecs): null vectors in
+     * reduced form on nullity pivot buttons, and offset, the solution that is zero
+     * there. A solution's bits on the pivots are exactly the vectors it uses, so
+     * subsets of size s reach every solution with s pivot bits. deficit counts the
+     * pivots shared with earlier sets.
+     */
+    record InformationSet(long[] vecs, long offset, int deficit) {}
+
+    /**
+     * Brouwer-Zimmermann: information sets whose new pivots are disjoint. The first
+     * is the dependent buttons, where nullVecs are already reduced and x0 is zero;
+     * each next one takes its pivots from the buttons no set has used, as far as the
+     * null space has rank there, and stops when it has none.
+     */
+    static List<InformationSet> informationSets(long x0, long[] nullVecs, int nullity, long pivotButtons) {
+        List<InformationSet> sets = new ArrayList<>();
+        sets.add(new InformationSet(nullVecs, x0, 0));
+        long unused = pivotButtons;
+        while (unused != 0) {
+            long[] vecs = Arrays.copyOf(nullVecs, nullity), pivot = new long[nullity];
+            long fresh = 0;
+            int deficit = 0;
+            for (int i = 0; i < nullity; i++) {
+                pivot[i] = Long.lowestOneBit(vecs[i] & unused);
+                if (pivot[i] == 0) { // No rank left on unused buttons: pivot anywhere
+                    pivot[i] = Long.lowestOneBit(vecs[i]);
+                    deficit++;
+                } else {
+                    fresh |= pivot[i];
+                }
+                for (int k = 0; k < nullity; k++) if (k != i && (vecs[k] & pivot[i]) != 0) vecs[k] ^= vecs[i];
+            }
+            // A set that only helps the bound after half its work is not worth it
+            if (2 * deficit > nullity) break;
+            long offset = x0;
+            for (int i = 0; i < nullity; i++) if ((offset & pivot[i]) != 0) offset ^= vecs[i];
+            sets.add(new InformationSet(vecs, offset, deficit));
+            unused &= ~fresh;
+        }
+        return sets;
+    }
+
+    /**
+     * Least weight of a solution not yet seen once every set has tried all subsets of
+     * size below s: it has at least s pivot bits in each set, so at least s - deficit
+     * on each set's fresh pivots, which are disjoint.
+     */
+    private static int lowerBound(List<InformationSet> sets, int s) {
+        int bound = 0;
+        for (InformationSet set : sets) bound += Math.max(0, s - set.deficit());
+        return bound;
+    }
+
+    private static int minWeightByInformationSets(List<InformationSet> sets, int nullity, int best) {
+        for (int size = 0; lowerBound(sets, size) < best; size++) {
+            for (InformationSet set : sets) best = minWeightOfSize(set.vecs(), nullity, 0, size, set.offset(), best);
+        }
+        return best;
+    }
+
     // Part 2: Linear system - Gaussian elimination + search free variables
     static long solvePart2(int[] target, int[][] btns) {
         int n = btns.length, m = target.length;
@@ -79,6 +574,7 @@ public class Day10 {
         for (int i = 0; i < m; i++) A[i][n] = target[i];
 
         // Gaussian elimination
+        Events.Stage elimination = Events.stage(10, "elimination");
         int[] pivot = new int[m];
         Arrays.fill(pivot, -1);
         boolean[] isPivot = new boolean[n];
@@ -97,16 +593,25 @@ public class Day10 {
             }
             row++;
         }
+        Events.finish(elimination, row);
 
         // Find free variables and search
         List<Integer> free = new ArrayList<>();
         for (int j = 0; j < n; j++) if (!isPivot[j]) free.add(j);
         int maxV = Math.min(300, free.size() > 3 ? 50 : 500);
-        return search(A, pivot, target, btns, n, m, free, new int[free.size()], 0, maxV, Long.MAX_VALUE);
+        int[][] inc = incidence(btns, m);
+        Events.Stage search = Events.stage(10, "search");
+        long[] stats = new long[2]; // Nodes and pruned leaves, published once below
+        long best = search(A, pivot, target, inc, n, m, free, new int[free.size()], 0, maxV, Long.MAX_VALUE, stats);
+        SEARCH_NODES.add(stats[0]);
+        SEARCH_PRUNED.add(stats[1]);
+        Events.finish(search, free.size());
+        return best;
     }
 
-    static long search(double[][] A, int[] pivot, int[] target, int[][] btns, int n, int m,
-                       List<Integer> free, int[] vals, int idx, int maxV, long best) {
+    static long search(double[][] A, int[] pivot, int[] target, int[][] inc, int n, int m,
+                       List<Integer> free, int[] vals, int idx, int maxV, long best, long[] stats) {
+        stats[0]++;
         if (idx == free.size()) {
             long[] x = new long[n];
             for (int i = 0; i < free.size(); i++) x[free.get(i)] = vals[i];
@@ -115,26 +620,529 @@ public class Day10 {
                 double v = A[r][n];
                 for (int c = pivot[r] + 1; c < n; c++) v -= A[r][c] * x[c];
                 long rv = Math.round(v);
-                if (Math.abs(v - rv) > 0.001 || rv < 0) return best;
+                if (Math.abs(v - rv) > 0.001 || rv < 0) {
+                    stats[1]++;
+                    return best;
+                }
                 x[pivot[r]] = rv;
             }
             // Verify: compute A*x and compare to target
             for (int j = 0; j < m; j++) {
                 long sum = 0;
-                for (int i = 0; i < n; i++) for (int idx2 : btns[i]) if (idx2 == j) sum += x[i];
-                if (sum != target[j]) return best;
+                for (int i = 0; i < n; i++) sum += inc[j][i] * x[i];
+                if (sum != target[j]) {
+                    stats[1]++;
+                    return best;
+                }
             }
             long sum = 0; for (long xi : x) sum += xi;
             return Math.min(best, sum);
         }
-        for (int v = 0; v <= maxV; v++) { vals[idx] = v; best = search(A, pivot, target, btns, n, m, free, vals, idx + 1, maxV, best); }
+        for (int v = 0; v <= maxV; v++) { vals[idx] = v; best = search(A, pivot, target, inc, n, m, free, vals, idx + 1, maxV, best, stats); }
         return best;
     }
 
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
+    // inc[counter][button] = how many times the button bumps that counter
+    static int[][] incidence(int[][] btns, int m) {
+        int[][] inc = new int[m][btns.length];
+        for (int i = 0; i < btns.length; i++) for (int idx : btns[i]) if (idx < m) inc[idx][i]++;
+        return inc;
+    }
+
+    /**
+     * Part 2 with exact integer arithmetic instead of doubles and a guessed maxV.
+     *
+     * The system is reduced fraction-free: rows are combined by cross-multiplying and
+     * divided back by their gcd, so every entry stays a small exact long. Each free
+     * variable is bounded by the smallest target among the counters its button bumps
+     * (coefficients are non-negative, so one press too many already overshoots).
+     * Pivot variables are solved as soon as the last free variable their row depends
+     * on is assigned, and rejected right there if not a non-negative integer.
+     * Branches are cut when a row left open can no longer be met within the free
+     * variables' bounds, or when the objective's minimum over those bounds cannot
+     * beat the best so far. Machines whose free-variable box is still too large for
+     * that go to the ILP engine.
+     */
+    static long solvePart2Exact(int[] target, int[][] btns) {
+        Events.Stage elimination = Events.stage(10, "elimination");
+        ExactSystem system = new ExactSystem(target, btns);
+        Events.finish(elimination, system.rank);
+        if (system.freeBox() > EXACT_BOX_LIMIT) return solvePart2Ilp(target, btns);
+        Events.Stage search = Events.stage(10, "search");
+        long best = system.solve();
+        Events.finish(search, system.n - system.rank);
+        return best;
+    }
+
+    // Free-variable assignments the exact search takes on; the real input stays below 10^6
+    static final long EXACT_BOX_LIMIT = 1L << 24;
+
+    static final class ExactSystem {
+        final int n, m;
+        final int[] target;
+        final int[][] inc;
+        final long[][] rows;     // Reduced rows: coefficients then right-hand side
+        final int[] pivotCol;    // Pivot column of each reduced row
+        final int rank;
+        final long[] upper;      // Upper bound per variable
+        int[] freeOrder;         // Free variables in search order
+        int[][] rowsReadyAt;     // Rows fully determined once freeOrder[d] is assigned
+        int[] readyDepth;        // Depth at which each row becomes determined
+        long[][] residual;       // Per depth: row rhs minus the free variables assigned so far
+        long[][] boxLow, boxHigh; // Per depth: least and greatest row contribution of the free variables left
+        double[] costLeft;       // Per depth: least objective change the free variables left can make
+        final long[] x;
+        long best = Long.MAX_VALUE;
+
+        ExactSystem(int[] target, int[][] btns) {
+            this.n = btns.length;
+            this.m = target.length;
+            this.target = target;
+            this.inc = incidence(btns, m);
+            this.x = new long[n];
+
+            rows = new long[m][n + 1];
+            for (int r = 0; r < m; r++) {
+                for (int c = 0; c < n; c++) rows[r][c] = inc[r][c];
+                rows[r][n] = target[r];
+            }
+
+            pivotCol = new int[m];
+            Arrays.fill(pivotCol, -1);
+            int row = 0;
+            for (int col = 0; col < n && row < m; col++) {
+                int sel = row;
+                while (sel < m && rows[sel][col] == 0) sel++;
+                if (sel == m) continue;
+                long[] tmp = rows[row]; rows[row] = rows[sel]; rows[sel] = tmp;
+                pivotCol[row] = col;
+                for (int r = 0; r < m; r++) {
+                    if (r == row || rows[r][col] == 0) continue;
+                    long f = rows[r][col], p = rows[row][col];
+                    for (int c = 0; c <= n; c++) {
+                        rows[r][c] = Math.subtractExact(Math.multiplyExact(rows[r][c], p), Math.multiplyExact(f, rows[row][c]));
+                    }
+                    normalize(rows[r]);
+                }
+                row++;
+            }
+            rank = row;
+            for (int r = 0; r < rank; r++) {
+                if (rows[r][pivotCol[r]] < 0) for (int c = 0; c <= n; c++) rows[r][c] = -rows[r][c];
+            }
+
+            upper = new long[n];
+            for (int j = 0; j < n; j++) {
+                long ub = Long.MAX_VALUE;
+                for (int r = 0; r < m; r++) if (inc[r][j] > 0) ub = Math.min(ub, target[r] / inc[r][j]);
+                upper[j] = ub == Long.MAX_VALUE ? 0 : ub; // Buttons that bump nothing are never worth pressing
+            }
+        }
+
+        /** Number of free-variable assignments within their bounds, saturating. */
+        long freeBox() {
+            boolean[] isPivot = new boolean[n];
+            for (int r = 0; r < rank; r++) isPivot[pivotCol[r]] = true;
+            long box = 1;
+            for (int j = 0; j < n; j++) {
+                if (!isPivot[j]) box = upper[j] + 1 > Long.MAX_VALUE / box ? Long.MAX_VALUE : box * (upper[j] + 1);
+            }
+            return box;
+        }
+
+        long solve() {
+            // Leftover rows read 0 = rhs: inconsistent unless rhs is zero too
+            for (int r = rank; r < m; r++) if (rows[r][n] != 0) return Long.MAX_VALUE;
+
+            boolean[] isPivot = new boolean[n];
+            for (int r = 0; r < rank; r++) isPivot[pivotCol[r]] = true;
+            freeOrder = IntStream.range(0, n).filter(j -> !isPivot[j]).boxed()
+                    .sorted(Comparator.comparingLong(j -> upper[j])).mapToInt(Integer::intValue).toArray();
+
+            int k = freeOrder.length;
+            int[] position = new int[n];
+            for (int d = 0; d < k; d++) position[freeOrder[d]] = d;
+            List<List<Integer>> ready = new ArrayList<>();
+            for (int d = 0; d <= k; d++) ready.add(new ArrayList<>());
+            for (int r = 0; r < rank; r++) {
+                int last = -1;
+                for (int c = 0; c < n; c++) if (!isPivot[c] && rows[r][c] != 0) last = Math.max(last, position[c]);
+                ready.get(last + 1).add(r);
+            }
+            rowsReadyAt = new int[k + 1][];
+            readyDepth = new int[rank];
+            for (int d = 0; d <= k; d++) {
+                rowsReadyAt[d] = ready.get(d).stream().mapToInt(Integer::intValue).toArray();
+                for (int r : rowsReadyAt[d]) readyDepth[r] = d;
+            }
+
+            // Substituting the pivots, the objective is sum(rhs / pivot) + sum(weight[c] * x[c])
+            // over the free variables, each in its box [0, upper]
+            boxLow = new long[k + 1][rank];
+            boxHigh = new long[k + 1][rank];
+            costLeft = new double[k + 1];
+            for (int d = k - 1; d >= 0; d--) {
+                int c = freeOrder[d];
+                double weight = 1;
+                for (int r = 0; r < rank; r++) {
+                    long a = Math.multiplyExact(rows[r][c], upper[c]);
+                    boxLow[d][r] = boxLow[d + 1][r] + Math.min(0, a);
+                    boxHigh[d][r] = boxHigh[d + 1][r] + Math.max(0, a);
+                    weight -= (double) rows[r][c] / rows[r][pivotCol[r]];
+                }
+                costLeft[d] = costLeft[d + 1] + Math.min(0, weight * upper[c]);
+            }
+            residual = new long[k + 1][rank];
+            for (int r = 0; r < rank; r++) residual[0][r] = rows[r][n];
+
+            // Rows without free variables fix their pivot outright
+            long base = solveRows(rowsReadyAt[0]);
+            if (base < 0) return Long.MAX_VALUE;
+            search(0, base);
+            return best;
+        }
+
+        private void search(int depth, long sum) {
+            if (depth == freeOrder.length) {
+                if (sum < best && verify()) best = sum;
+                return;
+            }
+            int var = freeOrder[depth];
+            for (long v = 0; v <= upper[var] && sum + v < best; v++) {
+                x[var] = v;
+                long pivots = solveRows(rowsReadyAt[depth + 1]);
+                if (pivots >= 0 && sum + v + pivots < best && promising(depth + 1, sum + v + pivots)) {
+                    search(depth + 1, sum + v + pivots);
+                }
+            }
+            x[var] = 0;
+        }
+
+        /**
+         * With freeOrder[0 .. depth - 1] assigned and sum pressed so far, whether the
+         * undetermined rows can still be met and beat best. Each such row's pivot must
+         * land in [0, upper] for some choice of the free variables left in their box,
+         * and the objective is at least its minimum over that box.
+         */
+        private boolean promising(int depth, long sum) {
+            int var = freeOrder[depth - 1];
+            long[] before = residual[depth - 1], after = residual[depth];
+            double bound = sum + costLeft[depth];
+            for (int r = 0; r < rank; r++) {
+                if (readyDepth[r] <= depth) continue;
+                long rest = after[r] = before[r] - rows[r][var] * x[var];
+                long pivot = rows[r][pivotCol[r]];
+                if (rest - boxLow[depth][r] < 0 || rest - boxHigh[depth][r] > pivot * upper[pivotCol[r]]) return false;
+                bound += (double) rest / pivot;
+            }
+            return bound < best - 1 + 1e-9; // Presses are whole: a bound above best - 1 cannot beat best
+        }
+
+        // Solve the pivots of the given rows; -1 if any is not a non-negative integer within bounds
+        private long solveRows(int[] rowIds) {
+            long total = 0;
+            for (int r : rowIds) {
+                long[] row = rows[r];
+                int p = pivotCol[r];
+                long rhs = row[n];
+                for (int c = 0; c < n; c++) if (c != p && row[c] != 0) rhs -= row[c] * x[c];
+                if (rhs < 0 || rhs % row[p] != 0) return -1;
+                long value = rhs / row[p];
+                if (value > upper[p]) return -1;
+                x[p] = value;
+                total += value;
+            }
+            return total;
+        }
+
+        private boolean verify() {
+            for (int r = 0; r < m; r++) {
+                long sum = 0;
+                for (int c = 0; c < n; c++) sum += inc[r][c] * x[c];
+                if (sum != target[r]) return false;
+            }
+            return true;
+        }
+
+        private static void normalize(long[] row) {
+            long g = 0;
+            for (long v : row) g = gcd(g, Math.abs(v));
+            if (g > 1) for (int c = 0; c < row.length; c++) row[c] /= g;
+        }
+
+        private static long gcd(long a, long b) {
+            while (b != 0) {
+                long t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+
+    /**
+     * Part 2 as an integer program: minimize sum(x) subject to A x = joltage, x >= 0.
+     *
+     * Best-first branch and bound over LP relaxations. Each node only tightens the
+     * per-variable bounds; its LP is solved from scratch by a dense two-phase simplex
+     * (Bland's rule, so no cycling), with lower bounds shifted out and upper bounds
+     * added as slack rows. Since the objective is integral, a node whose LP bound
+     * rounds up to the incumbent is pruned. An incumbent from another engine (e.g.
+     * the enumeration search) can be passed in as a warm start; the search then only
+     * has to prove or improve it.
+     */
+    static long solvePart2Ilp(int[] target, int[][] btns) {
+        return solvePart2Ilp(target, btns, Long.MAX_VALUE);
+    }
+
+    static long solvePart2Ilp(int[] target, int[][] btns, long warmStart) {
+        return new IlpSolver(target, btns).solve(warmStart);
+    }
+
+    static class IlpSolver {
+        private static final double EPS = 1e-9;
+        private static final double INT_EPS = 1e-6;
+
+        final int n, m;
+        final int[] target;
+        final int[][] inc;
+
+        IlpSolver(int[] target, int[][] btns) {
+            this.n = btns.length;
+            this.m = target.length;
+            this.target = target;
+            this.inc = incidence(btns, m);
+        }
+
+        record Node(long[] lower, long[] upper, double bound, double[] x) {}
+
+        long solve(long incumbent) {
+            long best = incumbent;
+            long[] lower = new long[n], upper = new long[n];
+            for (int j = 0; j < n; j++) {
+                long ub = Long.MAX_VALUE;
+                for (int r = 0; r < m; r++) if (inc[r][j] > 0) ub = Math.min(ub, target[r] / inc[r][j]);
+                upper[j] = ub == Long.MAX_VALUE ? 0 : ub;
+            }
+
+            // The root relaxation is the elimination; branch and bound is the search
+            PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingDouble(Node::bound));
+            Events.Stage elimination = Events.stage(10, "elimination");
+            Node root = relax(lower, upper);
+            Events.finish(elimination, m);
+            if (root != null) open.add(root);
+
+            Events.Stage search = Events.stage(10, "search");
+            long nodes = 0, pruned = 0;
+            while (!open.isEmpty()) {
+                Node node = open.poll();
+                if (lowerBound(node.bound) >= best) { // Best-first: nothing left can improve
+                    pruned += 1 + open.size();
+                    break;
+                }
+                nodes++;
+
+                // Branch on the most fractional variable
+                int branch = -1;
+                double worst = INT_EPS;
+                for (int j = 0; j < n; j++) {
+                    double frac = Math.abs(node.x[j] - Math.rint(node.x[j]));
+                    if (frac > worst) {
+                        worst = frac;
+                        branch = j;
+                    }
+                }
+
+                long split;
+                if (branch >= 0) {
+                    split = (long) Math.floor(node.x[branch]);
+                } else {
+                    long[] x = new long[n];
+                    long sum = 0;
+                    for (int j = 0; j < n; j++) sum += x[j] = Math.round(node.x[j]);
+                    if (feasible(x)) {
+                        best = Math.min(best, sum);
+                        continue;
+                    }
+                    // Integral only up to drift: split the free variable that carries the most residual
+                    branch = residualBranch(node, x);
+                    if (branch < 0) continue; // Every variable pinned: x is the box's only point
+                    split = Math.clamp(x[branch], node.lower[branch], node.upper[branch] - 1);
+                }
+
+                long[] downUpper = node.upper.clone();
+                downUpper[branch] = split;
+                long[] upLower = node.lower.clone();
+                upLower[branch] = split + 1;
+                for (Node child : new Node[]{relax(node.lower, downUpper), relax(upLower, node.upper)}) {
+                    if (child != null && lowerBound(child.bound) < best) open.add(child);
+                    else pruned++;
+                }
+            }
+            Events.finish(search, nodes);
+            SEARCH_NODES.add(nodes);
+            SEARCH_PRUNED.add(pruned);
+            if (best == Long.MAX_VALUE) throw new IllegalStateException("No press counts reach " + Arrays.toString(target));
+            return best;
+        }
+
+        /**
+         * The unpinned variable with the largest share of the rounded point's residual
+         * (sum over rows of |target - a x| times its coefficient), or -1 when all are pinned.
+         * Splitting it shrinks the box, so the search still ends.
+         */
+        private int residualBranch(Node node, long[] x) {
+            long[] residual = new long[m];
+            for (int r = 0; r < m; r++) {
+                long sum = 0;
+                for (int c = 0; c < n; c++) sum += inc[r][c] * x[c];
+                residual[r] = Math.abs(target[r] - sum);
+            }
+            int branch = -1;
+            long most = -1;
+            for (int j = 0; j < n; j++) {
+                if (node.lower[j] == node.upper[j]) continue;
+                long share = 0;
+                for (int r = 0; r < m; r++) share += residual[r] * inc[r][j];
+                if (share > most) {
+                    most = share;
+                    branch = j;
+                }
+            }
+            return branch;
+        }
+
+        private static long lowerBound(double lp) {
+            return (long) Math.ceil(lp - INT_EPS);
+        }
+
+        private boolean feasible(long[] x) {
+            for (int r = 0; r < m; r++) {
+                long sum = 0;
+                for (int c = 0; c < n; c++) sum += inc[r][c] * x[c];
+                if (sum != target[r]) return false;
+            }
+            return true;
+        }
+
+        /** LP relaxation within [lower, upper]; null if infeasible. Overridden by --check to inject drift. */
+        Node relax(long[] lower, long[] upper) {
+            for (int j = 0; j < n; j++) if (upper[j] < lower[j]) return null;
+
+            // Columns: n shifted variables, then one slack per upper bound row
+            int rows = m + n, cols = n + n;
+            double[][] a = new double[rows][cols];
+            double[] b = new double[rows];
+            for (int r = 0; r < m; r++) {
+                long rhs = target[r];
+                for (int c = 0; c < n; c++) {
+                    a[r][c] = inc[r][c];
+                    rhs -= inc[r][c] * lower[c];
+                }
+                b[r] = rhs;
+            }
+            int row = m;
+            for (int j = 0; j < n; j++) {
+                a[row][j] = 1;
+                a[row][n + (row - m)] = 1;
+                b[row] = upper[j] - lower[j];
+                row++;
+            }
+            double[] cost = new double[cols];
+            Arrays.fill(cost, 0, n, 1);
+
+            double[] y = simplex(a, b, cost);
+            if (y == null) return null;
+            double[] x = new double[n];
+            double objective = 0;
+            for (int j = 0; j < n; j++) {
+                x[j] = y[j] + lower[j];
+                objective += x[j];
+            }
+            return new Node(lower, upper, objective, x);
+        }
+
+        /** Dense two-phase simplex: minimize cost.x subject to a x = b, x >= 0. */
+        static double[] simplex(double[][] a, double[] b, double[] cost) {
+            int rows = a.length, cols = cost.length, width = cols + rows + 1;
+            double[][] t = new double[rows][width];
+            int[] basis = new int[rows];
+            for (int r = 0; r < rows; r++) {
+                double sign = b[r] < 0 ? -1 : 1;
+                for (int c = 0; c < cols; c++) t[r][c] = sign * a[r][c];
+                t[r][cols + r] = 1;
+                t[r][width - 1] = sign * b[r];
+                basis[r] = cols + r;
+            }
+
+            // Phase 1: drive the artificials to zero
+            double[] phase1 = new double[cols + rows];
+            Arrays.fill(phase1, cols, cols + rows, 1);
+            optimize(t, basis, phase1, cols + rows);
+            double infeasibility = 0;
+            for (int r = 0; r < rows; r++) if (basis[r] >= cols) infeasibility += t[r][width - 1];
+            if (infeasibility > INT_EPS) return null;
+            for (int r = 0; r < rows; r++) {
+                if (basis[r] < cols) continue;
+                for (int c = 0; c < cols; c++) {
+                    if (Math.abs(t[r][c]) > EPS) {
+                        pivot(t, basis, r, c);
+                        break;
+                    }
+                }
+            }
+
+            // Phase 2: real objective, artificials may no longer enter
+            double[] phase2 = Arrays.copyOf(cost, cols + rows);
+            optimize(t, basis, phase2, cols);
+            double[] x = new double[cols];
+            for (int r = 0; r < rows; r++) if (basis[r] < cols) x[basis[r]] = t[r][width - 1];
+            return x;
+        }
+
+        private static void optimize(double[][] t, int[] basis, double[] cost, int eligible) {
+            int rows = t.length, rhs = t[0].length - 1;
+            boolean[] inBasis = new boolean[rhs];
+            while (true) {
+                Arrays.fill(inBasis, false);
+                for (int b : basis) inBasis[b] = true;
+
+                // Bland's rule: lowest-index column with a negative reduced cost
+                int enter = -1;
+                for (int c = 0; c < eligible && enter < 0; c++) {
+                    if (inBasis[c]) continue;
+                    double reduced = cost[c];
+                    for (int r = 0; r < rows; r++) reduced -= cost[basis[r]] * t[r][c];
+                    if (reduced < -EPS) enter = c;
+                }
+                if (enter < 0) return;
+
+                int leave = -1;
+                double bestRatio = Double.POSITIVE_INFINITY;
+                for (int r = 0; r < rows; r++) {
+                    if (t[r][enter] <= EPS) continue;
+                    double ratio = t[r][rhs] / t[r][enter];
+                    if (ratio < bestRatio - EPS || (ratio < bestRatio + EPS && leave >= 0 && basis[r] < basis[leave])) {
+                        bestRatio = ratio;
+                        leave = r;
+                    }
+                }
+                if (leave < 0) return; // Unbounded: cannot happen with a non-negative objective
+                pivot(t, basis, leave, enter);
+            }
+        }
+
+        private static void pivot(double[][] t, int[] basis, int row, int col) {
+            double[] p = t[row];
+            double scale = p[col];
+            for (int c = 0; c < p.length; c++) p[c] /= scale;
+            for (int r = 0; r < t.length; r++) {
+                if (r == row) continue;
+                double f = t[r][col];
+                if (Math.abs(f) <= EPS) continue;
+                for (int c = 0; c < p.length; c++) t[r][c] -= f * p[c];
+            }
+            basis[row] = col;
+        }
     }
 }
\ No newline at end of file
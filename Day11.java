@@ -9,22 +9,64 @@ import java.util.*;
  * Part 1: Count all paths from 'you' to 'out'
  * Part 2: Count paths from 'svr' to 'out' that visit both 'dac' and 'fft'
  */
-public class Day11 {
+public class Day11 implements Solver<Day11.CompiledGraph> {
+
+    static final Metrics.Counter MEMO_HITS = Metrics.counter("day11.memoHits");
+    static final Metrics.Counter MEMO_MISSES = Metrics.counter("day11.memoMisses");
+    static final Metrics.Counter EDGES_RELAXED = Metrics.counter("day11.edgesRelaxed");
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day11.txt"));
+        Input input = Input.map(Paths.get("inputs/day11.txt"));
+        CompiledGraph graph = compileGraph(input);
 
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        long part1 = solvePart1Compiled(graph);
         long time1 = System.nanoTime() - start;
 
         start = System.nanoTime();
-        long part2 = solvePart2(lines);
+        long part2 = solvePart2Compiled(graph);
         long time2 = System.nanoTime() - start;
 
         System.out.println("=== Day 11: Reactor ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
-        System.out.println("Part 2: " + part2 + " (took " + formatTime(time2) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        System.out.println("Part 2: " + part2 + " (took " + Solver.formatTime(time2) + ")");
+
+        // Optional cross-check of the compiled graph against the string-keyed reference
+        if (args.length > 0 && args[0].equals("--check")) {
+            long ref1 = solvePart1(input);
+            System.out.println("Check Part 1: " + (ref1 == part1 ? "OK" : "MISMATCH (reference " + ref1 + ")"));
+            long ref2 = solvePart2(input);
+            System.out.println("Check Part 2: " + (ref2 == part2 ? "OK" : "MISMATCH (reference " + ref2 + ")"));
+        }
+        // Replay a stream of edge updates and queries against live path counts to 'out'
+        if (args.length > 0 && args[0].equals("--replay")) {
+            replay(input, args.length > 1 ? args[1] : null);
+        }
+    }
+
+    @Override
+    public String title() {
+        return "Reactor";
+    }
+
+    @Override
+    public CompiledGraph parse(Input input) {
+        return compileGraph(input);
+    }
+
+    @Override
+    public long part1(CompiledGraph graph) {
+        return solvePart1Compiled(graph);
+    }
+
+    @Override
+    public long part2(CompiledGraph graph) {
+        return solvePart2Compiled(graph);
+    }
+
+    @Override
+    public String engine(int part) {
+        return part == 1 ? "topo" : part == 2 ? "subset-dp" : "standard";
     }
 
     static class Graph {
@@ -39,51 +81,69 @@ public class Day11 {
         }
     }
 
-    static long solvePart1(List<String> lines) {
-        Graph graph = parseGraph(lines);
+    static long solvePart1(Input input) {
+        Graph graph = parseGraph(input);
         return countPaths(graph, "you", "out", new HashSet<>());
     }
 
-    static long solvePart2(List<String> lines) {
-        Graph graph = parseGraph(lines);
+    static long solvePart2(Input input) {
+        Graph graph = parseGraph(input);
+
+        long[] stats = new long[2]; // Memo hits and misses, published once below
 
         // Case 1: svr -> dac (without visiting fft) -> fft -> out
-        long pathsSvrToDacNoFft = countPathsDP(graph, "svr", "dac", Set.of("fft"), new HashMap<>());
-        long pathsDacToFft = countPathsDP(graph, "dac", "fft", Set.of(), new HashMap<>());
-        long pathsFftToOut = countPathsDP(graph, "fft", "out", Set.of(), new HashMap<>());
+        long pathsSvrToDacNoFft = countPathsDP(graph, "svr", "dac", Set.of("fft"), new HashMap<>(), stats);
+        long pathsDacToFft = countPathsDP(graph, "dac", "fft", Set.of(), new HashMap<>(), stats);
+        long pathsFftToOut = countPathsDP(graph, "fft", "out", Set.of(), new HashMap<>(), stats);
         long case1 = pathsSvrToDacNoFft * pathsDacToFft * pathsFftToOut;
 
         // Case 2: svr -> fft (without visiting dac) -> dac -> out
-        long pathsSvrToFftNoDac = countPathsDP(graph, "svr", "fft", Set.of("dac"), new HashMap<>());
-        long pathsFftToDac = countPathsDP(graph, "fft", "dac", Set.of(), new HashMap<>());
-        long pathsDacToOut = countPathsDP(graph, "dac", "out", Set.of(), new HashMap<>());
+        long pathsSvrToFftNoDac = countPathsDP(graph, "svr", "fft", Set.of("dac"), new HashMap<>(), stats);
+        long pathsFftToDac = countPathsDP(graph, "fft", "dac", Set.of(), new HashMap<>(), stats);
+        long pathsDacToOut = countPathsDP(graph, "dac", "out", Set.of(), new HashMap<>(), stats);
         long case2 = pathsSvrToFftNoDac * pathsFftToDac * pathsDacToOut;
 
+        MEMO_HITS.add(stats[0]);
+        MEMO_MISSES.add(stats[1]);
         return case1 + case2;
     }
 
     /**
      * Parse input into a directed graph
      */
-    static Graph parseGraph(List<String> lines) {
+    static Graph parseGraph(Input input) {
+        Events.Phase parse = Events.phase(11, Events.Phase.PARSE);
         Graph graph = new Graph();
 
-        for (String line : lines) {
-            if (line.trim().isEmpty()) continue;
+        for (String[] row : parseRows(input)) {
+            graph.addEdge(row[0], Arrays.asList(row).subList(1, row.length));
+        }
 
-            String[] parts = line.split(": ");
-            String device = parts[0];
+        Events.finish(parse, input, graph.adjacency.size());
+        return graph;
+    }
 
-            List<String> outputs = new ArrayList<>();
-            if (parts.length > 1) {
-                String[] outputArray = parts[1].split(" ");
-                outputs = Arrays.asList(outputArray);
+    /**
+     * Every non-blank "device: out1 out2 ..." line as {device, out1, out2, ...}.
+     * Names are decoded straight from the input bytes, once per occurrence.
+     */
+    static List<String[]> parseRows(Input input) {
+        List<String[]> rows = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        input.rewind();
+        while (input.hasMore()) {
+            int pos = input.position(), end = input.lineEnd();
+            names.clear();
+            while (pos < end) {
+                while (pos < end && (input.at(pos) == ' ' || input.at(pos) == ':')) pos++;
+                int from = pos;
+                while (pos < end && input.at(pos) != ' ' && input.at(pos) != ':') pos++;
+                if (pos > from) names.add(input.text(from, pos));
             }
-
-            graph.addEdge(device, outputs);
+            input.nextLine();
+            if (!names.isEmpty()) rows.add(names.toArray(new String[0]));
         }
-
-        return graph;
+        return rows;
     }
 
     /**
@@ -119,14 +179,18 @@ public class Day11 {
     /**
      * Count paths from start to end using dynamic programming with memoization.
      * Forbidden nodes cannot be visited.
-     * Used for Part 2 optimization.
+     * Used for Part 2 optimization. Memo hits and misses are tallied in stats[0]
+     * and stats[1].
      */
     static long countPathsDP(Graph graph, String start, String end,
-                             Set<String> forbidden, Map<String, Long> memo) {
+                             Set<String> forbidden, Map<String, Long> memo, long[] stats) {
         // Check memoization cache
-        if (memo.containsKey(start)) {
-            return memo.get(start);
+        Long cached = memo.get(start);
+        if (cached != null) {
+            stats[0]++;
+            return cached;
         }
+        stats[1]++;
 
         // Base case: reached destination
         if (start.equals(end)) {
@@ -141,7 +205,7 @@ public class Day11 {
         // Count paths through all neighbors
         long total = 0;
         for (String neighbor : graph.getNeighbors(start)) {
-            total += countPathsDP(graph, neighbor, end, forbidden, memo);
+            total += countPathsDP(graph, neighbor, end, forbidden, memo, stats);
         }
 
         // Memoize result
@@ -149,10 +213,611 @@ public class Day11 {
         return total;
     }
 
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
+    /**
+     * Graph compiled for counting: node names interned to dense int IDs once, edges
+     * stored in CSR form (the successors of u are targets[offsets[u] .. offsets[u+1])).
+     * Nothing on the counting paths hashes a string or boxes a number.
+     */
+    static final class CompiledGraph {
+        final String[] names;
+        final Map<String, Integer> ids;
+        final int[] offsets;
+        final int[] targets;
+
+        CompiledGraph(String[] names, Map<String, Integer> ids, int[] offsets, int[] targets) {
+            this.names = names;
+            this.ids = ids;
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        /** Dense ID of a node, or -1 if the name never appears. */
+        int id(String name) {
+            Integer id = ids.get(name);
+            return id == null ? -1 : id;
+        }
+    }
+
+    static CompiledGraph compileGraph(Input input) {
+        Events.Phase parse = Events.phase(11, Events.Phase.PARSE);
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>(); // {source, target...} per input line
+        int edgeCount = 0;
+
+        for (String[] line : parseRows(input)) {
+            int[] row = new int[line.length];
+            for (int i = 0; i < row.length; i++) row[i] = intern(line[i], ids, names);
+            rows.add(row);
+            edgeCount += row.length - 1;
+        }
+
+        // A repeated source line replaces the earlier one, as in Graph.addEdge
+        int n = names.size();
+        int[][] latest = new int[n][];
+        for (int[] row : rows) latest[row[0]] = row;
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = pos;
+            if (latest[u] != null) {
+                System.arraycopy(latest[u], 1, targets, pos, latest[u].length - 1);
+                pos += latest[u].length - 1;
+            }
+        }
+        offsets[n] = pos;
+        Events.finish(parse, input, n);
+        return new CompiledGraph(names.toArray(new String[0]), ids, offsets, Arrays.copyOf(targets, pos));
+    }
+
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    static long solvePart1Compiled(CompiledGraph graph) {
+        return countPathsTopo(graph, graph.id("you"), graph.id("out"), new boolean[graph.size()]);
+    }
+
+    static long solvePart2Compiled(CompiledGraph graph) {
+        return countPaths(graph, "svr", "out", "dac", "fft");
+    }
+
+    /**
+     * Strongly connected components of the part of the graph reachable from start, in
+     * reverse topological order (sinks first). End and forbidden nodes have no way
+     * out, matching the stop rules of countPathsDP.
+     */
+    static final class Condensation {
+        final int[] nodes;      // Reachable nodes grouped by component
+        final int[] bounds;     // Component c is nodes[bounds[c] .. bounds[c + 1])
+        final boolean[] cyclic; // Component has a cycle (more than one node or a self-loop)
+        final int[] component;  // Component of each node, -1 if unreachable
+        final int count;
+
+        Condensation(int[] nodes, int[] bounds, boolean[] cyclic, int[] component, int count) {
+            this.nodes = nodes;
+            this.bounds = bounds;
+            this.cyclic = cyclic;
+            this.component = component;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Iterative Tarjan walk from start. Tarjan closes a component only after every
+     * component it can reach, so the emission order is already a reverse topological
+     * order and no separate sort (or recursion) is needed.
+     */
+    static Condensation condense(CompiledGraph graph, int start, int end, boolean[] forbidden) {
+        int n = graph.size();
+        int[] offsets = graph.offsets, targets = graph.targets;
+        int[] index = new int[n], low = new int[n], component = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        int[] callStack = new int[n], cursor = new int[n], limit = new int[n];
+        int[] sccStack = new int[n];
+        int[] nodes = new int[n], bounds = new int[n + 1];
+        boolean[] cyclic = new boolean[n];
+        int callTop = -1, sccTop = -1, counter = 0, components = 0, emitted = 0;
+
+        index[start] = low[start] = counter++;
+        sccStack[++sccTop] = start;
+        callStack[++callTop] = start;
+        cursor[callTop] = offsets[start];
+        limit[callTop] = start == end || forbidden[start] ? offsets[start] : offsets[start + 1];
+
+        while (callTop >= 0) {
+            int u = callStack[callTop];
+            if (cursor[callTop] < limit[callTop]) {
+                int v = targets[cursor[callTop]++];
+                if (index[v] < 0) {
+                    index[v] = low[v] = counter++;
+                    sccStack[++sccTop] = v;
+                    callStack[++callTop] = v;
+                    cursor[callTop] = offsets[v];
+                    limit[callTop] = v == end || forbidden[v] ? offsets[v] : offsets[v + 1];
+                } else if (component[v] < 0) {
+                    low[u] = Math.min(low[u], index[v]); // v is still on the SCC stack
+                }
+                continue;
+            }
+
+            callTop--;
+            if (callTop >= 0) {
+                int parent = callStack[callTop];
+                low[parent] = Math.min(low[parent], low[u]);
+            }
+            if (low[u] != index[u]) continue;
+
+            // u roots a component: pop it
+            int from = sccTop;
+            while (sccStack[from] != u) from--;
+            int id = components++;
+            bounds[id] = emitted;
+            for (int i = from; i <= sccTop; i++) {
+                component[sccStack[i]] = id;
+                nodes[emitted++] = sccStack[i];
+            }
+            cyclic[id] = sccTop > from || hasSelfLoop(graph, u, end, forbidden);
+            sccTop = from - 1;
+        }
+        bounds[components] = emitted;
+        return new Condensation(nodes, bounds, cyclic, component, components);
+    }
+
+    private static boolean hasSelfLoop(CompiledGraph graph, int u, int end, boolean[] forbidden) {
+        if (u == end || forbidden[u]) return false;
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) if (graph.targets[e] == u) return true;
+        return false;
+    }
+
+    /**
+     * Count paths from start to end in linear time, cycles included.
+     *
+     * Components come out of condense sinks first, so when a component is reached all
+     * of its successors outside it are counted and its count is a plain sum: DP over a
+     * topological order without recursion. A cycle that is reachable from start and
+     * can still reach end means infinitely many paths; that is reported as an
+     * exception naming the cycle. Cycles that never reach end just count zero.
+     */
+    static long countPathsTopo(CompiledGraph graph, int start, int end, boolean[] forbidden) {
+        if (start < 0 || end < 0) return 0;
+        int[] offsets = graph.offsets, targets = graph.targets;
+        Condensation cond = condense(graph, start, end, forbidden);
+        long[] ways = new long[graph.size()];
+        long relaxed = 0;
+
+        for (int c = 0; c < cond.count; c++) {
+            long total = 0;
+            for (int i = cond.bounds[c]; i < cond.bounds[c + 1]; i++) {
+                int w = cond.nodes[i];
+                if (w == end) {
+                    total += 1;
+                    continue;
+                }
+                if (forbidden[w]) continue;
+                relaxed += offsets[w + 1] - offsets[w];
+                for (int e = offsets[w]; e < offsets[w + 1]; e++) {
+                    int v = targets[e];
+                    if (cond.component[v] != c) total += ways[v];
+                }
+            }
+            if (cond.cyclic[c] && total > 0) throw infinitePaths(graph, cond, c);
+            for (int i = cond.bounds[c]; i < cond.bounds[c + 1]; i++) ways[cond.nodes[i]] = cond.cyclic[c] ? 0 : total;
+        }
+        EDGES_RELAXED.add(relaxed);
+        return ways[start];
+    }
+
+    /**
+     * Paths from source to target that visit every required node, in any order, in one
+     * sweep. Each node carries a long[1 << k] vector indexed by the subset of required
+     * nodes the path visits from that node on; a node's vector is the sum of its
+     * successors' vectors, shifted by its own bit. The answer is the full-subset entry
+     * at the source. Vectors live in slots of one buffer per call, and a slot is
+     * recycled as soon as its node's last predecessor has read it, so memory follows
+     * the width of the graph rather than its size and nothing is allocated per node.
+     *
+     * With no required nodes this is the plain path count. Cycles on a source-to-target
+     * walk are reported like in countPathsTopo.
+     */
+    static long countPaths(CompiledGraph graph, String source, String target, String... requiredNodes) {
+        int start = graph.id(source), end = graph.id(target);
+        int k = requiredNodes.length;
+        if (k > 20) throw new IllegalArgumentException("At most 20 required nodes, got " + k);
+        if (start < 0 || end < 0) return 0;
+
+        int n = graph.size();
+        int[] bit = new int[n];
+        for (int i = 0; i < k; i++) {
+            int id = graph.id(requiredNodes[i]);
+            if (id < 0) return 0;
+            bit[id] |= 1 << i;
+        }
+
+        int[] offsets = graph.offsets, targets = graph.targets;
+        boolean[] none = new boolean[n];
+        Condensation cond = condense(graph, start, end, none);
+
+        // Readers left per node: how many reachable predecessors still need its vector
+        int[] readers = new int[n];
+        for (int i = 0; i < cond.bounds[cond.count]; i++) {
+            int u = cond.nodes[i];
+            if (u == end) continue;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) readers[targets[e]]++;
+        }
+
+        int size = 1 << k;
+        int[] slot = new int[n]; // Each node's vector is buffer[slot * size ..], -1 for none
+        Arrays.fill(slot, -1);
+        long[] buffer = new long[4 * size], sum = new long[size];
+        int[] free = new int[4];
+        int slots = 0, freeCount = 0;
+        long relaxed = 0;
+        for (int c = 0; c < cond.count; c++) {
+            Arrays.fill(sum, 0);
+            boolean any = false;
+            for (int i = cond.bounds[c]; i < cond.bounds[c + 1]; i++) {
+                int w = cond.nodes[i];
+                if (w == end) {
+                    sum[0] += 1;
+                    any = true;
+                    continue;
+                }
+                relaxed += offsets[w + 1] - offsets[w];
+                for (int e = offsets[w]; e < offsets[w + 1]; e++) {
+                    int v = targets[e];
+                    if (cond.component[v] == c) continue;
+                    if (slot[v] >= 0) {
+                        for (int mask = 0, base = slot[v] * size; mask < size; mask++) sum[mask] += buffer[base + mask];
+                        any = true;
+                    }
+                    if (--readers[v] == 0 && v != start && slot[v] >= 0) {
+                        free[freeCount++] = slot[v];
+                        slot[v] = -1;
+                    }
+                }
+            }
+            if (!any) continue; // No way to the target: the all-zero vector gets no slot
+            if (cond.cyclic[c]) throw infinitePaths(graph, cond, c);
+
+            int u = cond.nodes[cond.bounds[c]];
+            if (freeCount > 0) {
+                slot[u] = free[--freeCount];
+            } else {
+                slot[u] = slots++;
+                if (slots > free.length) free = Arrays.copyOf(free, 2 * slots);
+                if (Math.multiplyExact(slots, size) > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(Integer.MAX_VALUE - 8, 2L * slots * size));
+                }
+            }
+            int base = slot[u] * size;
+            if (bit[u] != 0) {
+                Arrays.fill(buffer, base, base + size, 0);
+                for (int mask = 0; mask < size; mask++) buffer[base + (mask | bit[u])] += sum[mask];
+            } else {
+                System.arraycopy(sum, 0, buffer, base, size);
+            }
+        }
+        EDGES_RELAXED.add(relaxed);
+        return slot[start] < 0 ? 0 : buffer[slot[start] * size + size - 1];
+    }
+
+    private static IllegalStateException infinitePaths(CompiledGraph graph, Condensation cond, int c) {
+        StringJoiner cycle = new StringJoiner(", ");
+        int from = cond.bounds[c], to = cond.bounds[c + 1];
+        for (int i = from; i < Math.min(to, from + 5); i++) cycle.add(graph.names[cond.nodes[i]]);
+        return new IllegalStateException("Infinitely many paths: cycle through " + cycle + (to - from > 5 ? ", ..." : ""));
+    }
+
+    /**
+     * Paths from every node to a fixed target, kept up to date while edges come and go.
+     *
+     * The graph keeps a topological order (ord) of its effective edges - edges leaving
+     * the target are stored but ignored, since paths stop there. Inserting u -> v adds
+     * ways[v] paths to u and to every ancestor of u in proportion to its paths into u;
+     * removing it takes them away again. Only the ancestors of u are touched, in
+     * reverse topological order so each one's delta is complete before it is passed
+     * on. The order itself is maintained with the Pearce-Kelly algorithm: an insertion
+     * against the order only reshuffles the nodes between v and u, and finding u while
+     * searching forward from v means the edge would close a cycle. Such an insertion
+     * is rejected with an exception and leaves the graph unchanged.
+     */
+    static final class DynamicPathCounts {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final int target;
+        private int n;
+        private int[][] succ = new int[16][], pred = new int[16][];
+        private int[] succSize = new int[16], predSize = new int[16];
+        private int[] ord = new int[16];    // Position in a topological order
+        private long[] ways = new long[16]; // Paths to the target
+        private long[] delta = new long[16];
+        private int[] mark = new int[16];
+        private int stamp;
+        private int[] stack = new int[16], found = new int[16];
+
+        DynamicPathCounts(Input input, String targetName) {
+            for (String[] row : parseRows(input)) {
+                int from = node(row[0]);
+                for (int i = 1; i < row.length; i++) link(from, node(row[i]));
+            }
+            target = node(targetName);
+
+            // Initial order by Kahn's algorithm over the effective edges
+            int[] indegree = new int[n];
+            for (int u = 0; u < n; u++) if (u != target) for (int i = 0; i < succSize[u]; i++) indegree[succ[u][i]]++;
+            int[] queue = new int[n];
+            int head = 0, tail = 0;
+            for (int u = 0; u < n; u++) if (indegree[u] == 0) queue[tail++] = u;
+            while (head < tail) {
+                int u = queue[head];
+                ord[u] = head++;
+                if (u == target) continue;
+                for (int i = 0; i < succSize[u]; i++) if (--indegree[succ[u][i]] == 0) queue[tail++] = succ[u][i];
+            }
+            if (tail < n) throw new IllegalStateException("Initial graph has a cycle");
+            for (int i = n - 1; i >= 0; i--) ways[queue[i]] = countFromSuccessors(queue[i]);
+        }
+
+        /** Paths from the named node to the target (0 for unknown nodes). */
+        long paths(String name) {
+            Integer id = ids.get(name);
+            return id == null ? 0 : ways[id];
+        }
+
+        void addEdge(String from, String to) {
+            int u = node(from), v = node(to);
+            if (u != target) {
+                if (u == v) throw new IllegalStateException("Edge " + from + " -> " + to + " would close a cycle");
+                if (ord[u] > ord[v]) reorder(u, v);
+            }
+            link(u, v);
+            if (u != target && ways[v] != 0) propagate(u, ways[v]);
+        }
+
+        /** Removes one u -> v edge; false if there was none. */
+        boolean removeEdge(String from, String to) {
+            Integer u = ids.get(from), v = ids.get(to);
+            if (u == null || v == null || !unlink(succ, succSize, u, v)) return false;
+            unlink(pred, predSize, v, u);
+            if (u != target && ways[v] != 0) propagate(u, -ways[v]);
+            return true;
+        }
+
+        /** Recounts everything from scratch and compares with the maintained counts. */
+        boolean verify() {
+            int[] byOrder = new int[n];
+            for (int u = 0; u < n; u++) byOrder[ord[u]] = u;
+            long[] fresh = new long[n];
+            for (int i = n - 1; i >= 0; i--) {
+                int u = byOrder[i];
+                if (u == target) {
+                    fresh[u] = 1;
+                    continue;
+                }
+                for (int k = 0; k < succSize[u]; k++) {
+                    int v = succ[u][k];
+                    if (ord[v] <= ord[u]) return false; // Order broken
+                    fresh[u] += fresh[v];
+                }
+            }
+            for (int u = 0; u < n; u++) if (fresh[u] != ways[u]) return false;
+            return true;
+        }
+
+        private long countFromSuccessors(int u) {
+            if (u == target) return 1;
+            long total = 0;
+            for (int i = 0; i < succSize[u]; i++) total += ways[succ[u][i]];
+            return total;
+        }
+
+        /**
+         * Pearce-Kelly: the nodes reachable from v with ord <= ord[u] and the nodes
+         * reaching u with ord >= ord[v] swap into the same pool of positions,
+         * ancestors first.
+         */
+        private void reorder(int u, int v) {
+            int lower = ord[v], upper = ord[u];
+            int forward = collect(v, true, upper, u);
+            int[] fwd = Arrays.copyOf(found, forward);
+            int backward = collect(u, false, lower, -1);
+            int[] bwd = Arrays.copyOf(found, backward);
+
+            long[] sortedB = byOrd(bwd), sortedF = byOrd(fwd);
+            int[] pool = new int[forward + backward];
+            for (int i = 0; i < backward; i++) pool[i] = (int) (sortedB[i] >>> 32);
+            for (int i = 0; i < forward; i++) pool[backward + i] = (int) (sortedF[i] >>> 32);
+            Arrays.sort(pool);
+            int next = 0;
+            for (long key : sortedB) ord[(int) key] = pool[next++];
+            for (long key : sortedF) ord[(int) key] = pool[next++];
+        }
+
+        // DFS forward (successors with ord <= bound) or backward (predecessors with ord >= bound)
+        private int collect(int from, boolean forward, int bound, int forbidden) {
+            stamp++;
+            int top = 0, count = 0;
+            stack[top++] = from;
+            mark[from] = stamp;
+            while (top > 0) {
+                int x = stack[--top];
+                found[count++] = x;
+                if (forward && x == target) continue;
+                int[] next = forward ? succ[x] : pred[x];
+                int size = forward ? succSize[x] : predSize[x];
+                for (int i = 0; i < size; i++) {
+                    int w = next[i];
+                    if (w == forbidden) {
+                        throw new IllegalStateException("Edge " + names.get(forbidden) + " -> " + names.get(from)
+                                + " would close a cycle");
+                    }
+                    if (!forward && w == target) continue;
+                    if (mark[w] == stamp || (forward ? ord[w] > bound : ord[w] < bound)) continue;
+                    mark[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+            return count;
+        }
+
+        private long[] byOrd(int[] nodes) {
+            long[] keys = new long[nodes.length];
+            for (int i = 0; i < nodes.length; i++) keys[i] = (long) ord[nodes[i]] << 32 | nodes[i];
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        // Adds d paths at u and pushes them up through the ancestors, downstream first
+        private void propagate(int u, long d) {
+            int count = collect(u, false, Integer.MIN_VALUE, -1);
+            long[] order = byOrd(Arrays.copyOf(found, count));
+            for (long key : order) delta[(int) key] = 0;
+            delta[u] = d;
+            for (int i = order.length - 1; i >= 0; i--) {
+                int x = (int) order[i];
+                long dx = delta[x];
+                if (dx == 0) continue;
+                ways[x] += dx;
+                for (int k = 0; k < predSize[x]; k++) {
+                    int p = pred[x][k];
+                    if (p != target) delta[p] += dx;
+                }
+            }
+        }
+
+        private int node(String name) {
+            Integer id = ids.get(name);
+            if (id != null) return id;
+            if (n == ord.length) grow();
+            ids.put(name, n);
+            names.add(name);
+            succ[n] = new int[2];
+            pred[n] = new int[2];
+            ord[n] = n; // New nodes go last: they have no edges yet
+            return n++;
+        }
+
+        private void grow() {
+            int size = ord.length * 2;
+            succ = Arrays.copyOf(succ, size);
+            pred = Arrays.copyOf(pred, size);
+            succSize = Arrays.copyOf(succSize, size);
+            predSize = Arrays.copyOf(predSize, size);
+            ord = Arrays.copyOf(ord, size);
+            ways = Arrays.copyOf(ways, size);
+            delta = Arrays.copyOf(delta, size);
+            mark = Arrays.copyOf(mark, size);
+            stack = Arrays.copyOf(stack, size);
+            found = Arrays.copyOf(found, size);
+        }
+
+        private void link(int u, int v) {
+            append(succ, succSize, u, v);
+            append(pred, predSize, v, u);
+        }
+
+        private static void append(int[][] lists, int[] sizes, int at, int value) {
+            if (sizes[at] == lists[at].length) lists[at] = Arrays.copyOf(lists[at], sizes[at] * 2);
+            lists[at][sizes[at]++] = value;
+        }
+
+        private static boolean unlink(int[][] lists, int[] sizes, int at, int value) {
+            for (int i = 0; i < sizes[at]; i++) {
+                if (lists[at][i] == value) {
+                    lists[at][i] = lists[at][--sizes[at]];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Replays "+ from to", "- from to" and "? node" lines against live counts to 'out'
+     * and reports update latency percentiles. Without a file, a seeded random stream
+     * over the input's own nodes is used.
+     */
+    static void replay(Input input, String updatesFile) throws IOException {
+        DynamicPathCounts counts = new DynamicPathCounts(input, "out");
+        List<String> ops = updatesFile != null
+                ? Files.readAllLines(Paths.get(updatesFile))
+                : randomUpdates(input, 100_000, 2025);
+
+        long[] latencies = new long[ops.size()];
+        int updates = 0, rejected = 0, missing = 0, queries = 0;
+        long checksum = 0;
+        for (String op : ops) {
+            if (op.isBlank()) continue;
+            String[] parts = op.trim().split("\\s+");
+            if (parts[0].equals("?")) {
+                checksum += counts.paths(parts[1]);
+                queries++;
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                if (parts[0].equals("+")) counts.addEdge(parts[1], parts[2]);
+                else if (!counts.removeEdge(parts[1], parts[2])) missing++;
+            } catch (IllegalStateException e) {
+                rejected++;
+            }
+            latencies[updates++] = System.nanoTime() - start;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, updates);
+        Arrays.sort(sorted);
+        System.out.println();
+        System.out.println("--- Replay (" + (updatesFile != null ? updatesFile : "random stream") + ") ---");
+        System.out.println("Updates: " + updates + " (" + rejected + " rejected as cycles, " + missing + " removals of absent edges)");
+        System.out.println("Queries: " + queries + " (checksum " + checksum + ")");
+        if (updates > 0) {
+            System.out.println("Update latency: p50 " + Solver.formatTime(percentile(sorted, 50)) + ", p90 " + Solver.formatTime(percentile(sorted, 90))
+                    + ", p99 " + Solver.formatTime(percentile(sorted, 99)) + ", max " + Solver.formatTime(sorted[updates - 1]));
+        }
+        System.out.println("Paths you -> out: " + counts.paths("you") + ", svr -> out: " + counts.paths("svr"));
+        System.out.println("Verified against a full recount: " + (counts.verify() ? "OK" : "MISMATCH"));
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, (int) ((long) sorted.length * p / 100))];
+    }
+
+    // Seeded mix of insertions, removals and queries between the input's nodes
+    static List<String> randomUpdates(Input input, int count, long seed) {
+        List<String> nodes = new ArrayList<>(compileGraph(input).ids.keySet());
+        Collections.sort(nodes);
+        List<String[]> edges = new ArrayList<>();
+        for (String[] row : parseRows(input)) {
+            for (int i = 1; i < row.length; i++) edges.add(new String[]{row[0], row[i]});
+        }
+
+        Random random = new Random(seed);
+        List<String> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 4 && !edges.isEmpty()) {
+                String[] edge = edges.remove(random.nextInt(edges.size()));
+                ops.add("- " + edge[0] + " " + edge[1]);
+            } else if (kind < 9) {
+                String from = nodes.get(random.nextInt(nodes.size())), to = nodes.get(random.nextInt(nodes.size()));
+                ops.add("+ " + from + " " + to);
+                edges.add(new String[]{from, to});
+            } else {
+                ops.add("? " + nodes.get(random.nextInt(nodes.size())));
+            }
+        }
+        return ops;
     }
 }
\ No newline at end of file
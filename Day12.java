@@ -1,72 +1,512 @@
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 /**
  * Day 12: Christmas Tree Farm
  *
  * Part 1: Count how many regions can fit all requested presents.
  */
-public class Day12 {
+public class Day12 implements Solver<Day12.Puzzle> {
 
     public static void main(String[] args) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("inputs/day12.txt"));
+        Input input = Input.map(Paths.get("inputs/day12.txt"));
+        boolean check = false;
+        long budgetMillis = 1000;
+        for (int a = 0; a < args.length; a++) {
+            if (args[a].equals("--check")) check = true;
+            if (args[a].equals("--budget-ms")) budgetMillis = Long.parseLong(args[++a]);
+        }
 
+        Puzzle puzzle = parsePuzzle(input);
         long start = System.nanoTime();
-        long part1 = solvePart1(lines);
+        TierReport report = solvePart1Tiered(puzzle, budgetMillis * 1_000_000, Long.MAX_VALUE);
+        long part1 = report.fits();
         long time1 = System.nanoTime() - start;
 
         System.out.println("=== Day 12: Christmas Tree Farm ===");
-        System.out.println("Part 1: " + part1 + " (took " + formatTime(time1) + ")");
+        System.out.println("Part 1: " + part1 + " (took " + Solver.formatTime(time1) + ")");
+        report.print();
+
+        // Optional comparison with the area-only estimate
+        if (check) {
+            long ref1 = solvePart1(input);
+            System.out.println("Check Part 1: " + (ref1 == part1 ? "OK" : "DIFFERS (area-only count " + ref1 + ")"));
+        }
+    }
+
+    @Override
+    public String title() {
+        return "Christmas Tree Farm";
+    }
+
+    @Override
+    public Puzzle parse(Input input) {
+        return parsePuzzle(input);
     }
 
-    static long solvePart1(List<String> lines) {
-        List<Integer> shapeAreas = new ArrayList<>();
+    @Override
+    public long part1(Puzzle puzzle) {
+        // A node budget, not a clock: the same input gives the same answer on any machine and load
+        TierReport report = solvePart1Tiered(puzzle, Long.MAX_VALUE, SEARCH_STEPS);
+        // An over-budget region is neither a fit nor a miss: no answer beats a wrong one
+        if (report.overBudget().length > 0) {
+            throw new IllegalStateException("Regions on lines " + Arrays.toString(report.overBudget())
+                    + " exceeded the search budget of " + SEARCH_STEPS + " steps; their fit is unknown");
+        }
+        return report.fits();
+    }
+
+    @Override
+    public long part2(Puzzle puzzle) {
+        return 0;
+    }
+
+    @Override
+    public int parts() {
+        return 1;
+    }
+
+    @Override
+    public String engine(int part) {
+        return part == 1 ? "tiered" : "standard";
+    }
+
+    static long solvePart1(Input input) {
+        Puzzle puzzle = parsePuzzle(input);
+        int[] shapeAreas = new int[puzzle.shapes().size()];
+        for (int t = 0; t < shapeAreas.length; t++) {
+            for (int row : puzzle.shapes().get(t).getFirst()) shapeAreas[t] += Integer.bitCount(row);
+        }
+
         long count = 0;
-        int i = 0;
-
-        // Parse shapes (lines like "0:" followed by 3 pattern lines)
-        while (i < lines.size() && lines.get(i).matches("\\d+:\\s*")) {
-            int area = 0;
-            for (int k = 1; k <= 3; k++) {
-                for (char c : lines.get(i + k).toCharArray()) {
-                    if (c == '#') area++;
+        for (Region region : puzzle.regions()) {
+            long need = 0;
+            for (int j = 0; j < region.counts().length; j++) {
+                need += (long) region.counts()[j] * shapeAreas[j];
+            }
+            if ((long) region.width() * region.height() >= need) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Part 1 with an exact packing check per region instead of the area estimate.
+     */
+    static long solvePart1Exact(Input input) {
+        Puzzle puzzle = parsePuzzle(input);
+        long count = 0;
+        for (Region region : puzzle.regions()) {
+            if (search(region, puzzle.shapes(), Long.MAX_VALUE, Long.MAX_VALUE) == TIER_SEARCH) count++;
+        }
+        return count;
+    }
+
+    record Region(int line, int width, int height, int[] counts) {}
+
+    /** Shapes as orientation lists, plus every region to check. */
+    record Puzzle(List<List<int[]>> shapes, List<Region> regions) {}
+
+    /**
+     * Hand-rolled parse of the whole input: "N:" headers followed by '#' patterns,
+     * then "WxH: c0 c1 ..." region lines. No regular expressions.
+     */
+    static Puzzle parsePuzzle(Input input) {
+        Events.Phase parse = Events.phase(12, Events.Phase.PARSE);
+        List<List<int[]>> shapes = new ArrayList<>();
+        List<Region> regions = new ArrayList<>();
+        int line = 0;
+        input.rewind();
+        while (input.hasMore()) {
+            line++;
+            int pos = input.position(), end = input.lineEnd();
+            int colon = -1, x = -1;
+            for (int p = pos; p < end; p++) {
+                if (input.at(p) == ':' && colon < 0) colon = p;
+                if (input.at(p) == 'x' && x < 0) x = p;
+            }
+            if (end == pos) {
+                input.nextLine();
+            } else if (colon >= 0 && x < 0) {
+                input.nextLine();
+                List<int[]> cells = new ArrayList<>();
+                for (int r = 0; input.hasMore() && input.lineEnd() > input.position(); r++, line++) {
+                    Input.Row row = input.rowView();
+                    for (int c = 0; c < row.length(); c++) {
+                        if (row.at(c) == '#') cells.add(new int[]{r, c});
+                    }
+                }
+                shapes.add(orientations(cells));
+            } else {
+                int w = input.nextInt(), h = input.nextInt();
+                int[] counts = new int[shapes.size()];
+                int k = 0;
+                while (input.hasNextNumber() && input.position() < end) {
+                    if (k == counts.length) {
+                        throw new IllegalArgumentException("Line " + line + ": more counts than the "
+                                + shapes.size() + " shapes defined above it");
+                    }
+                    counts[k++] = input.nextInt();
                 }
+                regions.add(new Region(line, w, h, counts));
+                input.position(end);
+                input.nextLine();
             }
-            shapeAreas.add(area);
-            i += 4;
-            while (i < lines.size() && lines.get(i).isEmpty()) i++;
         }
+        Events.finish(parse, input, regions.size());
+        return new Puzzle(shapes, regions);
+    }
 
-        // Parse and evaluate regions (lines like "46x45: 71 55 46 51 56 44")
-        while (i < lines.size()) {
-            String line = lines.get(i++);
-            if (line.isEmpty()) continue;
+    /** Search steps (placements tried or cells skipped) per region on the Solver path. */
+    static final long SEARCH_STEPS = 1L << 26;
 
-            String[] parts = line.split("x|:\\s*");
-            int w = Integer.parseInt(parts[0]);
-            int h = Integer.parseInt(parts[1]);
-            String[] counts = parts[2].split("\\s+");
+    static final int TIER_AREA = 0, TIER_BOXES = 1, TIER_SEARCH = 2, TIER_TIMEOUT = 3;
+    private static final String[] TIER_NAMES = {"area bound", "3x3 boxes", "exact search", "over budget"};
 
-            long need = 0;
-            for (int j = 0; j < counts.length; j++) {
-                need += (long) Integer.parseInt(counts[j]) * shapeAreas.get(j);
+    /** Per-tier region counts and summed per-region time, plus the input lines of regions over budget. */
+    record TierReport(long fits, int regions, long[] resolved, long[] nanos, long wallNanos, int[] overBudget) {
+        void print() {
+            System.out.println("Regions: " + regions + " (" + fits + " fit) in " + Solver.formatTime(wallNanos) + " wall");
+            for (int t = 0; t < TIER_NAMES.length; t++) {
+                System.out.println(String.format("  %-13s %5d regions, %s", TIER_NAMES[t], resolved[t], Solver.formatTime(nanos[t])));
+            }
+            if (overBudget.length > 0) System.out.println("  over budget on lines " + Arrays.toString(overBudget));
+        }
+    }
+
+    /**
+     * Part 1 as a three-tier pipeline, regions spread across cores.
+     *
+     * 1. Area bound: more piece cells than region cells can never fit.
+     * 2. Boxes: if every shape fits a k x k box and there are at least as many
+     *    disjoint k x k boxes as pieces, one piece per box is a packing.
+     * 3. Exact search (Packer, or CellPacker when both sides exceed 64) for whatever
+     *    is left, stopped after budgetNanos or budgetSteps per region. Regions over
+     *    budget are reported by line and not counted as fitting; Long.MAX_VALUE means
+     *    no limit.
+     */
+    static TierReport solvePart1Tiered(Puzzle puzzle, long budgetNanos, long budgetSteps) {
+        long wallStart = System.nanoTime();
+        List<List<int[]>> shapes = puzzle.shapes();
+        List<Region> regions = puzzle.regions();
+
+        int[] area = new int[shapes.size()];
+        int box = 0;
+        for (int t = 0; t < shapes.size(); t++) {
+            int[] rows = shapes.get(t).get(0);
+            int span = 0;
+            for (int row : rows) {
+                area[t] += Integer.bitCount(row);
+                span |= row;
             }
-            if ((long) w * h >= need) count++;
+            box = Math.max(box, Math.max(rows.length, 32 - Integer.numberOfLeadingZeros(span)));
         }
+        int boxSize = Math.max(1, box);
 
-        return count;
+        int[] tier = new int[regions.size()];
+        AtomicLongArray nanos = new AtomicLongArray(TIER_NAMES.length);
+        IntStream.range(0, regions.size()).parallel().forEach(r -> {
+            Region region = regions.get(r);
+            long start = System.nanoTime();
+            long need = 0, pieces = 0;
+            for (int t = 0; t < region.counts().length; t++) {
+                need += (long) region.counts()[t] * area[t];
+                pieces += region.counts()[t];
+            }
+            int result;
+            if (need > (long) region.width() * region.height()) {
+                result = TIER_AREA;
+            } else if (pieces <= (long) (region.width() / boxSize) * (region.height() / boxSize)) {
+                result = TIER_BOXES;
+            } else {
+                // Saturate: start + Long.MAX_VALUE would wrap to a deadline long past
+                result = search(region, shapes, start + Math.min(budgetNanos, Long.MAX_VALUE - Math.max(start, 0)),
+                        budgetSteps);
+            }
+            tier[r] = result;
+            nanos.addAndGet(Math.abs(result), System.nanoTime() - start);
+        });
+
+        long fits = 0;
+        long[] resolved = new long[TIER_NAMES.length], tierNanos = new long[TIER_NAMES.length];
+        for (int r = 0; r < regions.size(); r++) {
+            resolved[Math.abs(tier[r])]++;
+            if (tier[r] == TIER_BOXES || tier[r] == TIER_SEARCH) fits++;
+        }
+        for (int t = 0; t < TIER_NAMES.length; t++) tierNanos[t] = nanos.get(t);
+        int[] overBudget = IntStream.range(0, regions.size()).filter(r -> tier[r] == TIER_TIMEOUT)
+                .map(r -> regions.get(r).line()).toArray();
+        return new TierReport(fits, regions.size(), resolved, tierNanos, System.nanoTime() - wallStart, overBudget);
     }
 
-    static String formatTime(long nanos) {
-        if (nanos < 1_000) return nanos + " ns";
-        if (nanos < 1_000_000) return String.format("%.2f us", nanos / 1_000.0);
-        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
-        return String.format("%.2f s", nanos / 1_000_000_000.0);
+    /**
+     * Exact search for one region: TIER_SEARCH if it fits, -TIER_SEARCH if it does
+     * not, TIER_TIMEOUT once System.nanoTime() passes deadline or after maxSteps
+     * steps. The bitboard Packer needs one side of at most 64; larger regions use the
+     * cell-by-cell CellPacker.
+     */
+    static int search(Region region, List<List<int[]>> shapes, long deadline, long maxSteps) {
+        int w = region.width(), h = region.height();
+        if (Math.min(w, h) <= 64) {
+            Packer packer = new Packer(w, h, shapes, region.counts());
+            boolean fits = packer.solve(deadline, maxSteps);
+            return packer.timedOut ? TIER_TIMEOUT : fits ? TIER_SEARCH : -TIER_SEARCH;
+        }
+        CellPacker packer = new CellPacker(w, h, shapes, region.counts());
+        boolean fits = packer.solve(deadline, maxSteps);
+        return packer.timedOut ? TIER_TIMEOUT : fits ? TIER_SEARCH : -TIER_SEARCH;
     }
 
+    /**
+     * Every distinct rotation and reflection of a shape given as {row, col} cells
+     * (rotated in place), each as row bitmasks (bit c of rows[r] is the cell at
+     * column c), normalized to the top-left corner.
+     */
+    static List<int[]> orientations(List<int[]> cells) {
+        List<int[]> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int flip = 0; flip < 2; flip++) {
+            for (int turn = 0; turn < 4; turn++) {
+                int minR = Integer.MAX_VALUE, minC = Integer.MAX_VALUE, maxR = 0;
+                for (int[] cell : cells) {
+                    minR = Math.min(minR, cell[0]);
+                    minC = Math.min(minC, cell[1]);
+                }
+                for (int[] cell : cells) maxR = Math.max(maxR, cell[0] - minR);
+                int[] rows = new int[maxR + 1];
+                for (int[] cell : cells) rows[cell[0] - minR] |= 1 << (cell[1] - minC);
+                if (seen.add(Arrays.toString(rows))) result.add(rows);
+
+                for (int[] cell : cells) { // Rotate 90 degrees
+                    int r = cell[0];
+                    cell[0] = cell[1];
+                    cell[1] = -r;
+                }
+            }
+            for (int[] cell : cells) cell[1] = -cell[1]; // Mirror
+        }
+        return result;
+    }
+
+    /**
+     * Exact bitboard backtracking for one region.
+     *
+     * The board is one long per row. The search always works on the first empty cell
+     * in row-major order: either some orientation covers it with its own first cell,
+     * or it is left empty for good. Leaving cells empty spends the region's slack
+     * (free area minus the area still to place), so the remaining-area bound is
+     * checked on every such step. Pieces of the same shape are counted, not
+     * individually placed, so identical pieces are never permuted, and symmetric
+     * shapes contribute each distinct orientation only once.
+     */
+    static final class Packer {
+        final int width, height;
+        final long full;
+        final long[] board;
+        final int[][][] shapes;   // [shape][orientation] -> row masks
+        final int[][] firstCol;   // Column of the first cell in row 0, per orientation
+        final int[][] shapeWidth;
+        final int[] remaining;
+        final int slack;
+        int piecesLeft;
+
+        Packer(int w, int h, List<List<int[]>> orientations, int[] counts) {
+            // Keep the long side vertical so every row fits in a long
+            boolean transpose = w > 64;
+            this.width = transpose ? h : w;
+            this.height = transpose ? w : h;
+            if (width > 64) throw new IllegalArgumentException("Region too wide for the bitboard: " + w + "x" + h);
+            this.full = width == 64 ? -1L : (1L << width) - 1;
+            this.board = new long[height];
+
+            int types = counts.length;
+            this.shapes = new int[types][][];
+            this.firstCol = new int[types][];
+            this.shapeWidth = new int[types][];
+            this.remaining = counts.clone();
+            long need = 0;
+            for (int t = 0; t < types; t++) {
+                List<int[]> list = orientations.get(t);
+                shapes[t] = list.toArray(new int[0][]);
+                firstCol[t] = new int[list.size()];
+                shapeWidth[t] = new int[list.size()];
+                for (int o = 0; o < list.size(); o++) {
+                    int[] rows = list.get(o);
+                    int span = 0;
+                    for (int row : rows) span |= row;
+                    firstCol[t][o] = Integer.numberOfTrailingZeros(rows[0]);
+                    shapeWidth[t][o] = 32 - Integer.numberOfLeadingZeros(span);
+                }
+                int area = 0;
+                for (int row : list.get(0)) area += Integer.bitCount(row);
+                need += (long) area * counts[t];
+                piecesLeft += counts[t];
+            }
+            this.slack = (int) Math.max(-1, Math.min(Integer.MAX_VALUE, (long) width * height - need));
+        }
+
+        long deadline = Long.MAX_VALUE, maxSteps = Long.MAX_VALUE;
+        boolean timedOut;
+        private long steps;
+
+        boolean solve() {
+            return slack >= 0 && place(0, 0);
+        }
+
+        /**
+         * Same as solve(), but gives up (timedOut = true) once System.nanoTime() passes
+         * deadline or after maxSteps calls of place.
+         */
+        boolean solve(long deadline, long maxSteps) {
+            this.deadline = deadline;
+            this.maxSteps = maxSteps;
+            return solve();
+        }
+
+        private boolean place(int row, int skipped) {
+            if (piecesLeft == 0) return true;
+            if (++steps > maxSteps || ((steps & 4095) == 0 && System.nanoTime() > deadline)) timedOut = true;
+            if (timedOut) return false;
+            while (row < height && board[row] == full) row++;
+            if (row == height) return false;
+            int col = Long.numberOfTrailingZeros(~board[row] & full);
+
+            for (int t = 0; t < shapes.length; t++) {
+                if (remaining[t] == 0) continue;
+                for (int o = 0; o < shapes[t].length; o++) {
+                    int[] rows = shapes[t][o];
+                    int x = col - firstCol[t][o];
+                    if (x < 0 || x + shapeWidth[t][o] > width || row + rows.length > height) continue;
+                    if (!fits(rows, row, x)) continue;
+                    toggle(rows, row, x);
+                    remaining[t]--;
+                    piecesLeft--;
+                    boolean done = place(row, skipped);
+                    remaining[t]++;
+                    piecesLeft++;
+                    toggle(rows, row, x);
+                    if (done) return true;
+                }
+            }
+
+            // Leave the cell empty, if the remaining area still fits afterwards
+            if (skipped == slack) return false;
+            board[row] |= 1L << col;
+            boolean done = place(row, skipped + 1);
+            board[row] &= ~(1L << col);
+            return done;
+        }
+
+        private boolean fits(int[] rows, int row, int x) {
+            for (int r = 0; r < rows.length; r++) {
+                if ((board[row + r] & ((long) rows[r] << x)) != 0) return false;
+            }
+            return true;
+        }
+
+        private void toggle(int[] rows, int row, int x) {
+            for (int r = 0; r < rows.length; r++) board[row + r] ^= (long) rows[r] << x;
+        }
+    }
+
+    /**
+     * Packer's search on a plain boolean grid, for regions too large for one long
+     * per row either way round. Same first-empty-cell order, slack bound and
+     * per-shape counts; pieces are lists of {row, column} offsets from their first
+     * cell instead of row masks.
+     */
+    static final class CellPacker {
+        final int width, height;
+        final boolean[] filled;
+        final int[][][][] pieces; // [shape][orientation] -> {dr, dc} offsets from the first cell
+        final int[] remaining;
+        final long slack;
+        int piecesLeft;
+        long deadline = Long.MAX_VALUE, maxSteps = Long.MAX_VALUE;
+        boolean timedOut;
+        private long steps;
+
+        CellPacker(int w, int h, List<List<int[]>> orientations, int[] counts) {
+            this.width = w;
+            this.height = h;
+            this.filled = new boolean[Math.multiplyExact(w, h)];
+            this.pieces = new int[counts.length][][][];
+            this.remaining = counts.clone();
+            long need = 0;
+            for (int t = 0; t < counts.length; t++) {
+                List<int[]> list = orientations.get(t);
+                pieces[t] = new int[list.size()][][];
+                for (int o = 0; o < list.size(); o++) {
+                    int[] rows = list.get(o);
+                    int first = Integer.numberOfTrailingZeros(rows[0]);
+                    List<int[]> cells = new ArrayList<>();
+                    for (int r = 0; r < rows.length; r++) {
+                        for (int bits = rows[r]; bits != 0; bits &= bits - 1) {
+                            cells.add(new int[]{r, Integer.numberOfTrailingZeros(bits) - first});
+                        }
+                    }
+                    pieces[t][o] = cells.toArray(new int[0][]);
+                }
+                need += (long) pieces[t][0].length * counts[t];
+                piecesLeft += counts[t];
+            }
+            this.slack = (long) w * h - need;
+        }
+
+        boolean solve(long deadline, long maxSteps) {
+            this.deadline = deadline;
+            this.maxSteps = maxSteps;
+            return slack >= 0 && place(0, 0);
+        }
+
+        private boolean place(int from, long skipped) {
+            if (piecesLeft == 0) return true;
+            if (++steps > maxSteps || ((steps & 4095) == 0 && System.nanoTime() > deadline)) timedOut = true;
+            if (timedOut) return false;
+            while (from < filled.length && filled[from]) from++;
+            if (from == filled.length) return false;
+            int row = from / width, col = from % width;
+
+            for (int t = 0; t < pieces.length; t++) {
+                if (remaining[t] == 0) continue;
+                for (int[][] piece : pieces[t]) {
+                    if (!fits(piece, row, col)) continue;
+                    set(piece, row, col, true);
+                    remaining[t]--;
+                    piecesLeft--;
+                    boolean done = place(from, skipped);
+                    remaining[t]++;
+                    piecesLeft++;
+                    set(piece, row, col, false);
+                    if (done) return true;
+                }
+            }
+
+            // Leave the cell empty, if the remaining area still fits afterwards
+            if (skipped == slack) return false;
+            filled[from] = true;
+            boolean done = place(from + 1, skipped + 1);
+            filled[from] = false;
+            return done;
+        }
+
+        private boolean fits(int[][] piece, int row, int col) {
+            for (int[] cell : piece) {
+                int r = row + cell[0], c = col + cell[1];
+                if (r >= height || c < 0 || c >= width || filled[r * width + c]) return false;
+            }
+            return true;
+        }
+
+        private void set(int[][] piece, int row, int col, boolean value) {
+            for (int[] cell : piece) filled[(row + cell[0]) * width + col + cell[1]] = value;
+        }
+    }
 }
@@ -0,0 +1,259 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Answers and parsed models kept on disk between runs.
+ *
+ * Usage: javac *.java && java DiskCache [--dir .cache] [--days 8,9] [--inputs DIR]
+ *                                       [--max-mb 512] [--max-age-days 30]
+ *
+ * Answers are keyed by the SHA-256 of the input and of all the compiled solution
+ * classes (Input, Grid, aoc.collections and the rest, not just the day), so any
+ * change to code a solver can call invalidates them. Models are keyed by the input
+ * and the day's snapshot version instead: a day whose model is costly to build
+ * (Day08's sorted edge list) implements Snapshot, and its model survives changes
+ * to the parts. Snapshots are memory-mapped back in on load.
+ *
+ * Every file is written to a temporary name and moved into place, and carries a
+ * CRC32C of its payload; a file that fails the check is deleted and treated as a
+ * miss. After each write, files older than the age limit go first, then the least
+ * recently used until the directory fits the size limit (hits refresh a file's
+ * modification time).
+ */
+public final class DiskCache {
+
+    /** A model that can be written to bytes and read back from a mapped buffer. */
+    public interface Snapshot<M> {
+
+        /** Bump when the layout written by writeSnapshot changes. */
+        int snapshotVersion();
+
+        void writeSnapshot(M model, DataOutputStream out) throws IOException;
+
+        /** The model over buffer, which stays mapped for as long as the model is used. */
+        M readSnapshot(ByteBuffer buffer);
+    }
+
+    private static final int MAGIC = 0x414F4343; // "AOCC"
+    private static final int HEADER = 4 + 8 + 8;  // magic, payload length, CRC32C
+
+    private final Path dir;
+    private final long maxBytes;
+    private final Duration maxAge;
+
+    public DiskCache(Path dir, long maxBytes, Duration maxAge) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(".cache");
+        long maxMb = 512, maxAgeDays = 30;
+        String inputs = null;
+        List<Integer> days = null;
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "--dir" -> dir = Paths.get(args[++a]);
+                case "--max-mb" -> maxMb = Long.parseLong(args[++a]);
+                case "--max-age-days" -> maxAgeDays = Long.parseLong(args[++a]);
+                case "--inputs" -> inputs = args[++a];
+                case "--days" -> days = Arrays.stream(args[++a].split(",")).map(Integer::parseInt).toList();
+                default -> throw new IllegalArgumentException("Unknown option: " + args[a]);
+            }
+        }
+
+        DiskCache cache = new DiskCache(dir, maxMb << 20, Duration.ofDays(maxAgeDays));
+        for (Solver<?> solver : Runner.SOLVERS) {
+            if (days != null && !days.contains(solver.day())) continue;
+            long start = System.nanoTime();
+            Lookup lookup = cache.solve(solver, Input.map(Runner.inputPath(solver, inputs)));
+            System.out.println(String.format("Day %02d: %d / %d (%s, took %s)", solver.day(),
+                    lookup.answers()[0], lookup.answers()[1], lookup.source(),
+                    Solver.formatTime(System.nanoTime() - start)));
+        }
+        cache.evict(); // Limits may have been lowered since the last write
+    }
+
+    /** Both answers (part 2 is 0 for single-part days) and where they came from. */
+    public record Lookup(long[] answers, String source) {}
+
+    /**
+     * Answers for input: from disk when this version of the solver has seen it,
+     * otherwise solved against the cached model (or a freshly parsed one) and stored.
+     */
+    public <M> Lookup solve(Solver<M> solver, Input input) throws IOException {
+        String inputHash = input.sha256();
+        Path answersFile = dir.resolve(String.format("day%02d-%s-%s.answers",
+                solver.day(), inputHash.substring(0, 32), classHash(solver).substring(0, 16)));
+        ByteBuffer cached = read(answersFile);
+        if (cached != null) return new Lookup(new long[]{cached.getLong(0), cached.getLong(8)}, "cached answers");
+
+        @SuppressWarnings("unchecked")
+        Snapshot<M> snapshot = solver instanceof Snapshot<?> ? (Snapshot<M>) solver : null;
+        Path modelFile = snapshot == null ? null : dir.resolve(String.format("day%02d-%s-v%d.model",
+                solver.day(), inputHash.substring(0, 32), snapshot.snapshotVersion()));
+        ByteBuffer buffer = modelFile == null ? null : read(modelFile);
+
+        M model = buffer != null ? snapshot.readSnapshot(buffer) : solver.parse(input);
+        long[] answers = {solver.part1(model), solver.parts() > 1 ? solver.part2(model) : 0};
+        if (modelFile != null && buffer == null) write(modelFile, out -> snapshot.writeSnapshot(model, out));
+        write(answersFile, out -> {
+            out.writeLong(answers[0]);
+            out.writeLong(answers[1]);
+        });
+        evict();
+        return new Lookup(answers, buffer != null ? "solved from cached model" : "solved");
+    }
+
+    private interface Payload {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    /** The verified payload of file, mapped read-only, or null when missing or corrupt. */
+    ByteBuffer read(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.capacity() >= HEADER && mapped.getInt(0) == MAGIC) {
+            long length = mapped.getLong(4);
+            if (length == mapped.capacity() - HEADER) {
+                ByteBuffer payload = mapped.slice(HEADER, (int) length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if (crc.getValue() == mapped.getLong(12)) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                    return payload;
+                }
+            }
+        }
+        Files.deleteIfExists(file);
+        return null;
+    }
+
+    /** Writes header and payload to a temporary file, then moves it over file. */
+    void write(Path file, Payload payload) throws IOException {
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeLong(0);
+                out.writeLong(0);
+                payload.writeTo(out);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long length = channel.size() - HEADER;
+                CRC32C crc = new CRC32C();
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, HEADER, length));
+                ByteBuffer header = ByteBuffer.allocate(16).putLong(length).putLong(crc.getValue()).flip();
+                channel.write(header, 4);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Drops files past the age limit, then the least recently used until under the size limit. */
+    void evict() throws IOException {
+        record Entry(Path path, long size, long modified) {}
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(".answers") && !name.endsWith(".model")) continue;
+                entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::modified));
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        long total = entries.stream().mapToLong(Entry::size).sum();
+        for (Entry entry : entries) {
+            if (entry.modified() >= cutoff && total <= maxBytes) break;
+            Files.deleteIfExists(entry.path());
+            total -= entry.size();
+        }
+    }
+
+    private static final Map<Path, String> CODE_HASHES = new HashMap<>();
+
+    /**
+     * SHA-256 of every class file in the solver's code source, the compiled output
+     * directory or jar: its version as far as answers go. A day's answer depends on
+     * everything it calls, so hashing its own classes would miss a change to Input
+     * or Grid. Computed once per location and JVM.
+     */
+    static synchronized String classHash(Solver<?> solver) throws IOException {
+        CodeSource source = solver.getClass().getProtectionDomain().getCodeSource();
+        if (source == null) throw new IOException("No code source for " + solver.getClass().getName());
+        Path location;
+        try {
+            location = Paths.get(source.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Unusable code source " + source.getLocation(), e);
+        }
+        String hash = CODE_HASHES.get(location);
+        if (hash == null) {
+            hash = hashClasses(location);
+            CODE_HASHES.put(location, hash);
+        }
+        return hash;
+    }
+
+    // Class files by relative path (name and bytes both count), or the whole jar
+    private static String hashClasses(Path location) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JDK", e);
+        }
+        if (!Files.isDirectory(location)) {
+            digest.update(Files.readAllBytes(location));
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        List<Path> classes;
+        try (Stream<Path> files = Files.walk(location)) {
+            classes = files.filter(file -> file.toString().endsWith(".class"))
+                    .sorted(Comparator.comparing(file -> location.relativize(file).toString().replace('\\', '/')))
+                    .toList();
+        }
+        for (Path file : classes) {
+            digest.update(location.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Files.readAllBytes(file));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
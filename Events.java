@@ -0,0 +1,113 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the phases of a day and the hot stages inside solvers.
+ *
+ * Run with -XX:StartFlightRecording=filename=aoc.jfr and open the recording in JMC:
+ * the events sit on the thread timeline next to GC, JIT and allocation samples.
+ *
+ * Until Flight Recorder is started (on the command line or later with jcmd),
+ * phase() and stage() return null and finish() does nothing, so the event classes
+ * are never loaded: loading the first jdk.jfr.Event subclass costs a few hundred
+ * milliseconds, which would show up in every single-shot run of a day.
+ */
+public final class Events {
+
+    private Events() {
+    }
+
+    /** Reading the input, parsing it, or solving one part. */
+    @Name("aoc.Phase")
+    @Label("Day Phase")
+    @Category("Advent of Code")
+    @StackTrace(false)
+    public static final class Phase extends Event {
+        public static final String READ = "read", PARSE = "parse", PART1 = "part 1", PART2 = "part 2";
+
+        @Label("Day")
+        public int day;
+
+        @Label("Phase")
+        public String phase;
+
+        @Label("Input Size")
+        @DataAmount
+        public long inputBytes;
+
+        @Label("Result")
+        @Description("Answer of a part, records a parse produced, or bytes read")
+        public long result;
+
+        public Phase(int day, String phase) {
+            this.day = day;
+            this.phase = phase;
+        }
+
+    }
+
+    /** One inner stage of a solver: a sort, a removal round, elimination or search. */
+    @Name("aoc.Stage")
+    @Label("Solver Stage")
+    @Category("Advent of Code")
+    @StackTrace(false)
+    public static final class Stage extends Event {
+        @Label("Day")
+        public int day;
+
+        @Label("Stage")
+        public String stage;
+
+        @Label("Items")
+        @Description("Size of the stage's work: edges sorted, rolls removed, rank, free variables or nodes searched")
+        public long items;
+
+        public Stage(int day, String stage) {
+            this.day = day;
+            this.stage = stage;
+        }
+
+    }
+
+    /** Starts a phase event, or null when Flight Recorder is not running. */
+    public static Phase phase(int day, String phase) {
+        if (!FlightRecorder.isInitialized()) return null;
+        Phase event = new Phase(day, phase);
+        event.begin();
+        return event;
+    }
+
+    /** Starts a stage event, or null when Flight Recorder is not running. */
+    public static Stage stage(int day, String stage) {
+        if (!FlightRecorder.isInitialized()) return null;
+        Stage event = new Stage(day, stage);
+        event.begin();
+        return event;
+    }
+
+    /** Ends the phase and commits it with the input size and result; null is ignored. */
+    public static void finish(Phase event, Input input, long result) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.inputBytes = input.length();
+            event.result = result;
+            event.commit();
+        }
+    }
+
+    public static void finish(Stage event, long items) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.items = items;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,412 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic inputs in each day's puzzle format, for scaling tests.
+ *
+ * Usage: java Generate <day|all> <size> [seed] [outDir]
+ *
+ * size is the approximate output size in bytes, with an optional K/M/G suffix
+ * (64K, 10M, 1G). The same day, size and seed always give the same file. Output
+ * is streamed to outDir/dayNN.txt (default "generated") and never held in memory.
+ * Sizes are capped at MAX_SIZE, just under 2 GiB: Input maps a file into one
+ * buffer, which holds at most Integer.MAX_VALUE bytes. Run the days on it with
+ * Runner --inputs generated or JMH -p inputDir=generated.
+ */
+public class Generate {
+
+    /** Largest size accepted; the 16 MiB margin absorbs the last record written past size. */
+    static final long MAX_SIZE = Integer.MAX_VALUE - (16L << 20);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java Generate <day|all> <size> [seed] [outDir]");
+            return;
+        }
+        long size = parseSize(args[1]);
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Size " + args[1] + " is over the cap of " + MAX_SIZE + " bytes (Input maps under 2 GiB)");
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 2025;
+        Path dir = Paths.get(args.length > 3 ? args[3] : "generated");
+        Files.createDirectories(dir);
+
+        int from = args[0].equals("all") ? 1 : Integer.parseInt(args[0]);
+        int to = args[0].equals("all") ? 12 : from;
+        for (int day = from; day <= to; day++) {
+            Path file = dir.resolve(String.format("day%02d.txt", day));
+            long start = System.nanoTime();
+            try (Sink out = new Sink(Files.newOutputStream(file))) {
+                generate(day, size, seed, out);
+                if (out.written() > Integer.MAX_VALUE) throw new IOException("Generated " + file + " is too large to map");
+                System.out.println(String.format("Day %02d: %,d bytes to %s in %s",
+                        day, out.written(), file, Solver.formatTime(System.nanoTime() - start)));
+            }
+        }
+    }
+
+    static long parseSize(String text) {
+        char unit = Character.toUpperCase(text.charAt(text.length() - 1));
+        long scale = switch (unit) {
+            case 'K' -> 1L << 10;
+            case 'M' -> 1L << 20;
+            case 'G' -> 1L << 30;
+            default -> 1;
+        };
+        return Long.parseLong(scale == 1 ? text : text.substring(0, text.length() - 1)) * scale;
+    }
+
+    static void generate(int day, long size, long seed, Sink out) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (day) {
+            case 1 -> rotations(size, random, out);
+            case 2 -> idRanges(size, random, out);
+            case 3 -> batteryBanks(size, random, out);
+            case 4 -> rollGrid(size, random, out);
+            case 5 -> freshRanges(size, random, out);
+            case 6 -> worksheet(size, seed, out);
+            case 7 -> manifold(size, random, out);
+            case 8 -> pointCloud(size, random, out);
+            case 9 -> rectilinearPolygon(size, random, out);
+            case 10 -> machines(size, random, out);
+            case 11 -> deviceDag(size, random, out);
+            case 12 -> shapesAndRegions(size, random, out);
+            default -> throw new IllegalArgumentException("No generator for day " + day);
+        }
+    }
+
+    // "L68" / "R48" dial rotations
+    static void rotations(long size, SplittableRandom random, Sink out) throws IOException {
+        while (out.written() < size) {
+            out.write(random.nextBoolean() ? 'L' : 'R').write(1 + random.nextInt(999)).write('\n');
+        }
+    }
+
+    // One line of "start-end" ID ranges, comma separated, each at most 10^4 wide
+    static void idRanges(long size, SplittableRandom random, Sink out) throws IOException {
+        boolean first = true;
+        while (out.written() < size) {
+            long start = random.nextLong(1, 10_000_000_000L);
+            if (!first) out.write(',');
+            out.write(start).write('-').write(start + random.nextInt(10_000));
+            first = false;
+        }
+        out.write('\n');
+    }
+
+    // Lines of 100 digits 1-9
+    static void batteryBanks(long size, SplittableRandom random, Sink out) throws IOException {
+        while (out.written() < size) {
+            for (int i = 0; i < 100; i++) out.write((char) ('1' + random.nextInt(9)));
+            out.write('\n');
+        }
+    }
+
+    // Square grid of '@' rolls (60%) and '.' floor
+    static void rollGrid(long size, SplittableRandom random, Sink out) throws IOException {
+        int side = side(size);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) out.write(random.nextInt(10) < 6 ? '@' : '.');
+            out.write('\n');
+        }
+    }
+
+    // "start-end" fresh ranges (half the size), a blank line, then one ID per line
+    static void freshRanges(long size, SplittableRandom random, Sink out) throws IOException {
+        long limit = 1L << 48;
+        while (out.written() < size / 2) {
+            long start = random.nextLong(1, limit);
+            out.write(start).write('-').write(start + random.nextLong(1L << 36)).write('\n');
+        }
+        out.write('\n');
+        while (out.written() < size) {
+            out.write(random.nextLong(1, limit)).write('\n');
+        }
+    }
+
+    /**
+     * Four rows of numbers and an operator row, one problem per column block.
+     * The rows are written one after another, so each problem is regenerated
+     * from its own seed on every row instead of being kept in memory.
+     */
+    static void worksheet(long size, long seed, Sink out) throws IOException {
+        int rows = 4;
+        long problems = Math.max(1, size / (rows + 1) / 4);
+        for (int row = 0; row <= rows; row++) {
+            for (long p = 0; p < problems; p++) {
+                SplittableRandom problem = new SplittableRandom(seed * 31 + p);
+                int width = 1 + problem.nextInt(4);
+                boolean leftAligned = problem.nextBoolean();
+                char op = problem.nextBoolean() ? '+' : '*';
+                if (p > 0) out.write(' ');
+                for (int r = 0; r < rows; r++) {
+                    int digits = r == 0 ? width : 1 + problem.nextInt(width);
+                    long value = problem.nextLong(digits == 1 ? 1 : pow10(digits - 1), pow10(digits));
+                    if (r == row) {
+                        if (!leftAligned) out.repeat(' ', width - digits);
+                        out.write(value);
+                        if (leftAligned) out.repeat(' ', width - digits);
+                    }
+                }
+                if (row == rows) out.write(op).repeat(' ', width - 1);
+            }
+            out.write('\n');
+        }
+    }
+
+    // Start 'S' centred in the top row; every other row has splitters inside the beam's cone
+    static void manifold(long size, SplittableRandom random, Sink out) throws IOException {
+        int side = side(size) | 1, centre = side / 2;
+        for (int r = 0; r < side; r++) {
+            int reach = r / 2 - 1;
+            for (int c = 0; c < side; c++) {
+                boolean splitter = r % 2 == 0 && r > 0 && Math.abs(c - centre) <= reach
+                        && (c - centre + reach) % 2 == 0 && random.nextInt(10) < 8;
+                out.write(r == 0 && c == centre ? 'S' : splitter ? '^' : '.');
+            }
+            out.write('\n');
+        }
+    }
+
+    // "x,y,z" junction boxes in [0, 100000)^3
+    static void pointCloud(long size, SplittableRandom random, Sink out) throws IOException {
+        while (out.written() < size) {
+            out.write(random.nextInt(100_000)).write(',').write(random.nextInt(100_000)).write(',')
+                    .write(random.nextInt(100_000)).write('\n');
+        }
+    }
+
+    /**
+     * Red tiles of a histogram-shaped rectilinear polygon: up from (0, 0), then
+     * alternating steps right and up/down, then back down to y = 0. Consecutive
+     * tiles share a row or column and the outline never crosses itself.
+     */
+    static void rectilinearPolygon(long size, SplittableRandom random, Sink out) throws IOException {
+        long columns = Math.max(2, size / 24);
+        int step = (int) Math.max(1, Math.min(1000, Integer.MAX_VALUE / columns));
+        int x = 0, height = 1 + random.nextInt(100_000);
+        out.write(0).write(',').write(0).write('\n');
+        out.write(0).write(',').write(height).write('\n');
+        while (out.written() < size) {
+            x += 1 + random.nextInt(step);
+            out.write(x).write(',').write(height).write('\n');
+            int next;
+            do {
+                next = 1 + random.nextInt(100_000);
+            } while (next == height);
+            height = next;
+            out.write(x).write(',').write(height).write('\n');
+        }
+        x += 1 + random.nextInt(step);
+        out.write(x).write(',').write(height).write('\n');
+        out.write(x).write(',').write(0).write('\n');
+    }
+
+    /**
+     * "[.##.] (3) (1,3) {3,5,4,7}" machines. Lights and joltages come from random
+     * button presses, so both parts always have a solution.
+     */
+    static void machines(long size, SplittableRandom random, Sink out) throws IOException {
+        while (out.written() < size) {
+            int lights = 4 + random.nextInt(7), buttonCount = lights - 1 + random.nextInt(5);
+            int[] masks = new int[buttonCount];
+            for (int b = 0; b < buttonCount; b++) {
+                while (masks[b] == 0) masks[b] = random.nextInt(1 << lights) & random.nextInt(1 << lights);
+            }
+            int pattern = 0;
+            long[] joltage = new long[lights];
+            for (int b = 0; b < buttonCount; b++) {
+                if (random.nextBoolean()) pattern ^= masks[b];
+                int presses = random.nextInt(20);
+                for (int i = 0; i < lights; i++) if ((masks[b] >> i & 1) != 0) joltage[i] += presses;
+            }
+
+            out.write('[');
+            for (int i = 0; i < lights; i++) out.write((pattern >> i & 1) != 0 ? '#' : '.');
+            out.write(']');
+            for (int mask : masks) {
+                out.write(" (");
+                boolean first = true;
+                for (int i = 0; i < lights; i++) {
+                    if ((mask >> i & 1) == 0) continue;
+                    if (!first) out.write(',');
+                    out.write(i);
+                    first = false;
+                }
+                out.write(')');
+            }
+            out.write(" {");
+            for (int i = 0; i < lights; i++) {
+                if (i > 0) out.write(',');
+                out.write(joltage[i]);
+            }
+            out.write("}\n");
+        }
+    }
+
+    /**
+     * "name: out1 out2 ..." devices forming a DAG: every edge goes forward in a
+     * fixed node order, to the next node and to a few others at most 50 ahead.
+     * svr is first, out last, with you, dac and fft spread in between. Other
+     * names have at least four letters so they never clash with those five.
+     * Path counts grow quickly and wrap around long on large graphs.
+     */
+    static void deviceDag(long size, SplittableRandom random, Sink out) throws IOException {
+        long nodes = Math.max(16, size / 22);
+        int width = 4;
+        while (Math.pow(26, width) < nodes) width++;
+        long you = nodes / 10, dac = nodes / 3, fft = 2 * nodes / 3, last = nodes - 1;
+        for (long u = 0; u < last; u++) {
+            writeNode(u, you, dac, fft, last, width, out);
+            out.write(':');
+            long[] targets = new long[1 + random.nextInt(4)];
+            int count = 0;
+            for (int e = 0; e < targets.length; e++) {
+                long v = e == 0 ? u + 1 : Math.min(last, u + 1 + random.nextInt(50));
+                boolean repeated = false;
+                for (int i = 0; i < count; i++) repeated |= targets[i] == v;
+                if (repeated) continue;
+                targets[count++] = v;
+                out.write(' ');
+                writeNode(v, you, dac, fft, last, width, out);
+            }
+            out.write('\n');
+        }
+    }
+
+    private static void writeNode(long id, long you, long dac, long fft, long last, int width, Sink out)
+            throws IOException {
+        if (id == 0) out.write("svr");
+        else if (id == you) out.write("you");
+        else if (id == dac) out.write("dac");
+        else if (id == fft) out.write("fft");
+        else if (id == last) out.write("out");
+        else out.letters(id, width);
+    }
+
+    /**
+     * Six 3x3 shapes with 5-7 cells, then "WxH: c0 .. c5" regions. Like the puzzle
+     * input, most regions are clear-cut: 55% have no more pieces than 3x3 boxes,
+     * 43% need more cells than they have. The other 2% are small (5-9 wide) and
+     * 75-100% full, so the exact search gets work without running for minutes.
+     */
+    static void shapesAndRegions(long size, SplittableRandom random, Sink out) throws IOException {
+        int[] areas = new int[6];
+        for (int s = 0; s < areas.length; s++) {
+            int cells = 5 + random.nextInt(3), mask = 0;
+            while (Integer.bitCount(mask) < cells) mask |= 1 << random.nextInt(9);
+            areas[s] = cells;
+            out.write(s).write(":\n");
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) out.write((mask >> (r * 3 + c) & 1) != 0 ? '#' : '.');
+                out.write('\n');
+            }
+            out.write('\n');
+        }
+        while (out.written() < size) {
+            int kind = random.nextInt(100);
+            boolean small = kind >= 98;
+            int w = small ? 5 + random.nextInt(5) : 35 + random.nextInt(16);
+            int h = small ? 5 + random.nextInt(5) : 35 + random.nextInt(16);
+            long[] counts = new long[areas.length];
+            if (kind < 55) {
+                long pieces = (long) (w / 3) * (h / 3) * (70 + random.nextInt(31)) / 100;
+                for (long p = 0; p < pieces; p++) counts[random.nextInt(areas.length)]++;
+            } else if (!small) {
+                long budget = (long) w * h * (101 + random.nextInt(20)) / 100;
+                for (long used = 0; used < budget; ) {
+                    int s = random.nextInt(areas.length);
+                    counts[s]++;
+                    used += areas[s];
+                }
+            } else {
+                long budget = (long) w * h * (75 + random.nextInt(26)) / 100;
+                for (long used = 0; ; ) {
+                    int s = random.nextInt(areas.length);
+                    if (used + areas[s] > budget) break;
+                    counts[s]++;
+                    used += areas[s];
+                }
+            }
+            out.write(w).write('x').write(h).write(':');
+            for (long count : counts) out.write(' ').write(count);
+            out.write('\n');
+        }
+    }
+
+    /** Side of a square grid of about size bytes (one newline per row). */
+    private static int side(long size) {
+        return (int) Math.max(3, Math.min(Integer.MAX_VALUE - 1, (long) Math.sqrt((double) size)));
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) value *= 10;
+        return value;
+    }
+
+    /** Buffered byte output that counts what it has written; numbers are written without Strings. */
+    static final class Sink implements AutoCloseable {
+        private final OutputStream out;
+        private final byte[] digits = new byte[20];
+        private long written;
+
+        Sink(OutputStream out) {
+            this.out = new BufferedOutputStream(out, 1 << 16);
+        }
+
+        long written() {
+            return written;
+        }
+
+        Sink write(char c) throws IOException {
+            out.write(c);
+            written++;
+            return this;
+        }
+
+        Sink write(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) write(s.charAt(i));
+            return this;
+        }
+
+        Sink write(long value) throws IOException {
+            if (value < 0) {
+                write('-');
+                value = -value;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (n > 0) write((char) digits[--n]);
+            return this;
+        }
+
+        /** value in base 26 as exactly width letters 'a'-'z'. */
+        Sink letters(long value, int width) throws IOException {
+            for (int i = width - 1; i >= 0; i--) {
+                digits[i] = (byte) ('a' + value % 26);
+                value /= 26;
+            }
+            for (int i = 0; i < width; i++) write((char) digits[i]);
+            return this;
+        }
+
+        Sink repeat(char c, int count) throws IOException {
+            for (int i = 0; i < count; i++) write(c);
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
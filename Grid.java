@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+/**
+ * Rectangular grid of bytes in one byte[], row after row.
+ *
+ * Rows are stride = cols + 1 bytes apart, the same layout as the input file with
+ * its '\n' after every row, so a file whose rows all have the same length is
+ * taken over with a single bulk copy. The extra column holds the fill byte and
+ * doubles as the left neighbor of the next row's first cell, so stepping one
+ * column off either side of a row reads fill. With a border, a row of fill above
+ * and below completes the frame: every cell, edges included, has all 8 neighbors
+ * in the array and neighbor loops need no bounds checks.
+ *
+ * Rows, columns and neighborhoods are addressed as index arithmetic, nothing is
+ * allocated: a row runs rowStart(r) + c for c < cols, a column runs
+ * columnStart(c) + r * stride for r < rows. Rows shorter than the longest are
+ * padded with fill. Reading is thread-safe; writers use their own copy().
+ */
+public final class Grid {
+
+    private final byte[] cells;
+    private final int rows, cols, stride, origin;
+    private final boolean border;
+
+    private Grid(byte[] cells, int rows, int cols, boolean border) {
+        this.cells = cells;
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = cols + 1;
+        this.origin = (border ? stride : 0) + 1; // A fill byte before the first cell is its left neighbor
+        this.border = border;
+    }
+
+    /** The input's lines from the start as a grid, with a frame of fill around it when border is set. */
+    public static Grid of(Input input, byte fill, boolean border) {
+        input.rewind();
+        int rows = input.countLines(), cols = 0;
+        // Uniform: every row as long as the first and one '\n' after it, so it starts at r * stride
+        boolean uniform = true;
+        for (int r = 0; r < rows; r++) {
+            Input.Row row = input.rowView();
+            if (r == 0) cols = row.length();
+            uniform &= row.length() == cols && row.start() == r * (cols + 1);
+            cols = Math.max(cols, row.length());
+        }
+
+        Grid grid = new Grid(new byte[(rows + (border ? 2 : 0)) * (cols + 1) + 1], rows, cols, border);
+        byte[] cells = grid.cells;
+        int stride = grid.stride;
+        Arrays.fill(cells, fill);
+        // The file is already the layout, the last '\n' optional
+        if (uniform && (input.length() == rows * stride || input.length() == rows * stride - 1)) {
+            input.copyTo(0, cells, grid.origin, input.length());
+            for (int r = 0; r < rows; r++) cells[grid.origin + r * stride + cols] = fill;
+        } else {
+            input.rewind();
+            for (int r = 0; r < rows; r++) input.rowView().copyTo(cells, grid.origin + r * stride);
+        }
+        return grid;
+    }
+
+    /** An independent grid with the same cells, for solvers that write. */
+    public Grid copy() {
+        return new Grid(cells.clone(), rows, cols, border);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /** Distance between vertically adjacent cells. */
+    public int stride() {
+        return stride;
+    }
+
+    public boolean hasBorder() {
+        return border;
+    }
+
+    public int index(int r, int c) {
+        return origin + r * stride + c;
+    }
+
+    /** Index of the first cell of row r. */
+    public int rowStart(int r) {
+        return origin + r * stride;
+    }
+
+    /** Index of the top cell of column c. */
+    public int columnStart(int c) {
+        return origin + c;
+    }
+
+    public byte at(int index) {
+        return cells[index];
+    }
+
+    public byte at(int r, int c) {
+        return cells[origin + r * stride + c];
+    }
+
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    /** Column of the first b in row r, or -1. */
+    public int indexOf(int r, byte b) {
+        int start = rowStart(r);
+        for (int i = start; i < start + cols; i++) {
+            if (cells[i] == b) return i - start;
+        }
+        return -1;
+    }
+
+    /**
+     * How many of the 8 neighbors of the cell at index hold b. Needs the border
+     * for cells in the first and last row.
+     */
+    public int count8(int index, byte b) {
+        byte[] g = cells;
+        int up = index - stride, down = index + stride;
+        return (g[up - 1] == b ? 1 : 0) + (g[up] == b ? 1 : 0) + (g[up + 1] == b ? 1 : 0)
+                + (g[index - 1] == b ? 1 : 0) + (g[index + 1] == b ? 1 : 0)
+                + (g[down - 1] == b ? 1 : 0) + (g[down] == b ? 1 : 0) + (g[down + 1] == b ? 1 : 0);
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Performance history and regression report.
+ *
+ * Runner --history FILE appends one JSON line per measured result: day, phase,
+ * engine, input hash, JVM version, median, p99, bytes allocated per call and every
+ * timed sample. The report compares the latest run of each (day, phase, engine,
+ * input, JVM) with a rolling baseline of the runs before it:
+ *
+ * Usage: java History [--file perf-history.jsonl] [--baseline 5] [--threshold 5]
+ *                     [--method mann-whitney|threshold] [--alpha 0.01]
+ *
+ * A run regressed when its median is more than threshold percent slower than the
+ * baseline median and, with mann-whitney (default), a one-sided Mann-Whitney U
+ * test on the samples says slower with p < alpha. With threshold, the percentage
+ * alone decides. Exits with status 1 when any regression is found.
+ */
+public class History {
+
+    /** One line of the history file. */
+    record Run(String time, int day, String phase, String engine, String inputHash, String jvm,
+               long median, long p99, long allocated, long[] samples) {
+
+        String key() {
+            return day + "/" + phase + "/" + engine + "/" + inputHash + "/" + jvm;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get("perf-history.jsonl");
+        int baselineRuns = 5;
+        double threshold = 5, alpha = 0.01;
+        boolean mannWhitney = true;
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "--file" -> file = Paths.get(args[++a]);
+                case "--baseline" -> baselineRuns = Integer.parseInt(args[++a]);
+                case "--threshold" -> threshold = Double.parseDouble(args[++a]);
+                case "--alpha" -> alpha = Double.parseDouble(args[++a]);
+                case "--method" -> mannWhitney = switch (args[++a]) {
+                    case "mann-whitney" -> true;
+                    case "threshold" -> false;
+                    default -> throw new IllegalArgumentException("Unknown method: " + args[a]);
+                };
+                default -> throw new IllegalArgumentException("Unknown option: " + args[a]);
+            }
+        }
+
+        // Runs per key, oldest first, keys in order of first appearance
+        Map<String, List<Run>> series = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank()) continue;
+            Run run = parse(line);
+            series.computeIfAbsent(run.key(), k -> new ArrayList<>()).add(run);
+        }
+
+        System.out.println(String.format("%-3s %-6s %-13s %12s %12s %8s %9s %12s  %s",
+                "Day", "Phase", "Engine", "Baseline", "Latest", "Change", "p", "Alloc/call", "Verdict"));
+        int regressions = 0;
+        for (List<Run> runs : series.values()) {
+            Run latest = runs.getLast();
+            List<Run> baseline = runs.subList(Math.max(0, runs.size() - 1 - baselineRuns), runs.size() - 1);
+            if (baseline.isEmpty()) {
+                System.out.println(String.format("%-3d %-6s %-13s %12s %12s %8s %9s %12s  %s",
+                        latest.day(), latest.phase(), latest.engine(), "-", Solver.formatTime(latest.median()),
+                        "", "", latest.allocated(), "no baseline yet"));
+                continue;
+            }
+
+            long[] pooled = baseline.stream().flatMapToLong(run -> Arrays.stream(run.samples())).sorted().toArray();
+            long baseMedian = Runner.percentile(pooled, 50);
+            double change = 100.0 * (latest.median() - baseMedian) / Math.max(1, baseMedian);
+            double p = mannWhitneyGreater(latest.samples(), pooled);
+            boolean regressed = change > threshold && (!mannWhitney || p < alpha);
+            if (regressed) regressions++;
+            System.out.println(String.format(Locale.ROOT, "%-3d %-6s %-13s %12s %12s %+7.1f%% %9.2g %12d  %s",
+                    latest.day(), latest.phase(), latest.engine(), Solver.formatTime(baseMedian),
+                    Solver.formatTime(latest.median()), change, p, latest.allocated(),
+                    regressed ? "REGRESSION" : "ok"));
+        }
+
+        System.out.println(regressions == 0 ? "No regressions"
+                : regressions + " regression" + (regressions == 1 ? "" : "s") + " against the last "
+                + baselineRuns + " runs");
+        if (regressions > 0) System.exit(1);
+    }
+
+    /** Appends one line per result, creating the file if needed. */
+    static void append(Path file, List<Runner.Result> results, Map<Integer, String> inputHashes) throws IOException {
+        String time = Instant.now().toString();
+        String jvm = Runtime.version() + " " + System.getProperty("java.vm.name");
+        Map<Integer, Solver<?>> solvers = new HashMap<>();
+        for (Solver<?> solver : Runner.SOLVERS) solvers.put(solver.day(), solver);
+
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Runner.Result r : results) {
+                StringBuilder samples = new StringBuilder();
+                for (long sample : r.samples()) samples.append(samples.isEmpty() ? "" : ",").append(sample);
+                out.write(String.format(Locale.ROOT,
+                        "{\"time\":\"%s\",\"day\":%d,\"phase\":\"%s\",\"engine\":\"%s\",\"inputHash\":\"%s\","
+                                + "\"jvm\":\"%s\",\"medianNanos\":%d,\"p99Nanos\":%d,\"allocatedBytes\":%d,"
+                                + "\"samples\":[%s]}%n",
+                        time, r.day(), r.phase(), solvers.get(r.day()).engine(r.part()), inputHashes.get(r.day()),
+                        jvm.replace("\"", "'"), r.median(), r.p99(), r.allocated(), samples));
+            }
+        }
+    }
+
+    /**
+     * P-value of a one-sided Mann-Whitney U test that latest tends to be larger than
+     * baseline: normal approximation with tie correction and continuity correction.
+     */
+    static double mannWhitneyGreater(long[] latest, long[] baseline) {
+        int n1 = latest.length, n2 = baseline.length, n = n1 + n2;
+        if (n1 == 0 || n2 == 0) return 1;
+
+        // Rank the pooled samples, ties getting their average rank
+        long[] values = new long[n];
+        boolean[] fromLatest = new boolean[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i < n1 ? latest[i] : baseline[i - n1];
+            fromLatest[i] = i < n1;
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(values[a], values[b]));
+        double rankSum = 0, tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && values[order[j + 1]] == values[order[i]]) j++;
+            double rank = (i + j + 2) / 2.0;
+            for (int k = i; k <= j; k++) if (fromLatest[order[k]]) rankSum += rank;
+            double t = j - i + 1;
+            tieTerm += t * t * t - t;
+            i = j + 1;
+        }
+
+        double u = rankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) return 1;
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    // Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    /** Reads back a line written by append; only the fields and shapes append writes. */
+    static Run parse(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int i = line.indexOf('{') + 1;
+        while (i < line.length() && line.charAt(i) != '}') {
+            int keyEnd = line.indexOf('"', i + 1);
+            String key = line.substring(i + 1, keyEnd);
+            int start = keyEnd + 2; // past the closing quote and ':'
+            int end;
+            if (line.charAt(start) == '"') {
+                end = line.indexOf('"', start + 1) + 1;
+                fields.put(key, line.substring(start + 1, end - 1));
+            } else if (line.charAt(start) == '[') {
+                end = line.indexOf(']', start) + 1;
+                fields.put(key, line.substring(start + 1, end - 1));
+            } else {
+                end = start;
+                while (end < line.length() && line.charAt(end) != ',' && line.charAt(end) != '}') end++;
+                fields.put(key, line.substring(start, end));
+            }
+            i = line.charAt(end) == ',' ? end + 1 : end;
+        }
+
+        String samples = fields.getOrDefault("samples", "");
+        return new Run(fields.get("time"), Integer.parseInt(fields.get("day")), fields.get("phase"),
+                fields.get("engine"), fields.get("inputHash"), fields.get("jvm"),
+                Long.parseLong(fields.get("medianNanos")), Long.parseLong(fields.get("p99Nanos")),
+                Long.parseLong(fields.get("allocatedBytes")),
+                samples.isEmpty() ? new long[0] : Arrays.stream(samples.split(",")).mapToLong(Long::parseLong).toArray());
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over the raw bytes of a puzzle input, memory-mapped from disk.
+ *
+ * Numbers and lines are read straight from the mapped bytes: nextLong, nextInt,
+ * skip, lineStart and rowView allocate nothing. Only text() builds a String, for
+ * the few places that need real names (graph nodes).
+ *
+ * Not thread-safe: each thread keeps its own cursor (see duplicate()), and
+ * solvers start from rewind().
+ */
+public final class Input {
+
+    private final ByteBuffer data;
+    private final int length;
+    private final Row row = new Row();
+    private int pos;
+
+    private Input(ByteBuffer data) {
+        this.data = data;
+        this.length = data.limit();
+    }
+
+    public static Input map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Input too large to map: " + path);
+            return new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Input of(byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes));
+    }
+
+    public static Input of(List<String> lines) {
+        return of(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A second cursor over the same bytes, for reading the input from another thread. */
+    public Input duplicate() {
+        return new Input(data);
+    }
+
+    /** Back to the first byte; returns this so solvers can write solve(input.rewind()). */
+    public Input rewind() {
+        pos = 0;
+        return this;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    public void position(int pos) {
+        this.pos = pos;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean hasMore() {
+        return pos < length;
+    }
+
+    public byte at(int index) {
+        return data.get(index);
+    }
+
+    public byte peek() {
+        return data.get(pos);
+    }
+
+    /**
+     * Moves to the start of the next number and reports whether there is one.
+     * A '-' counts as a sign only when it does not follow a digit, so "3-5" reads
+     * as 3 and 5 while "x=-5" reads as -5.
+     */
+    public boolean hasNextNumber() {
+        while (pos < length) {
+            byte b = data.get(pos);
+            if (isDigit(b)) return true;
+            if (b == '-' && pos + 1 < length && isDigit(data.get(pos + 1))
+                    && (pos == 0 || !isDigit(data.get(pos - 1)))) {
+                return true;
+            }
+            pos++;
+        }
+        return false;
+    }
+
+    /** Next number after the cursor, skipping whatever separates it from the current position. */
+    public long nextLong() {
+        if (!hasNextNumber()) throw new NoSuchElementException("No number after offset " + pos);
+        boolean negative = data.get(pos) == '-';
+        if (negative) pos++;
+        long value = 0;
+        while (pos < length) {
+            byte b = data.get(pos);
+            if (!isDigit(b)) break;
+            value = value * 10 + (b - '0');
+            pos++;
+        }
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /** Moves just past the next occurrence of c, or to the end if there is none. */
+    public void skip(char c) {
+        while (pos < length && data.get(pos++) != c) {
+            // Scan
+        }
+    }
+
+    /** Offset of the first byte of the line the cursor is on. */
+    public int lineStart() {
+        int start = Math.min(pos, length);
+        while (start > 0 && data.get(start - 1) != '\n') start--;
+        return start;
+    }
+
+    /** Offset just past the last byte of the current line, excluding '\n' and a trailing '\r'. */
+    public int lineEnd() {
+        int end = pos;
+        while (end < length && data.get(end) != '\n') end++;
+        if (end > pos && data.get(end - 1) == '\r') end--;
+        return end;
+    }
+
+    /** Moves to the start of the next line. */
+    public void nextLine() {
+        skip('\n');
+    }
+
+    /**
+     * The rest of the current line as a view over the input, then moves to the
+     * next line. The returned Row is reused by the next call.
+     */
+    public Row rowView() {
+        row.start = pos;
+        row.end = lineEnd();
+        nextLine();
+        return row;
+    }
+
+    /** Number of lines from the cursor on, a final line without '\n' included. */
+    public int countLines() {
+        int lines = 0;
+        for (int i = pos; i < length; i++) {
+            if (data.get(i) == '\n') lines++;
+        }
+        if (length > pos && data.get(length - 1) != '\n') lines++;
+        return lines;
+    }
+
+    /** Hex SHA-256 of all the bytes, whatever the cursor position: the input's identity for caches. */
+    public String sha256() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data.duplicate().clear());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JDK", e);
+        }
+    }
+
+    /** Copies length bytes from offset from on into dst at offset, whatever the cursor position. */
+    public void copyTo(int from, byte[] dst, int offset, int length) {
+        data.get(from, dst, offset, length);
+    }
+
+    public String text(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        data.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /** One line of the input, [start, end) in the mapped bytes. */
+    public final class Row {
+        private int start, end;
+
+        public int start() {
+            return start;
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        public boolean isEmpty() {
+            return end == start;
+        }
+
+        public byte at(int index) {
+            return data.get(start + index);
+        }
+
+        /** Index of b within the row, or -1. */
+        public int indexOf(char b) {
+            for (int i = start; i < end; i++) {
+                if (data.get(i) == b) return i - start;
+            }
+            return -1;
+        }
+
+        /** Copies the row into dst at offset, at most dst.length - offset bytes. */
+        public void copyTo(byte[] dst, int offset) {
+            data.get(start, dst, offset, Math.min(end - start, dst.length - offset));
+        }
+
+        @Override
+        public String toString() {
+            return text(start, end);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Work counters solvers bump while they run: cells visited, nodes searched, memo hits.
+ *
+ * Each thread adds into its own long[] (no atomics, no sharing), and snapshot()
+ * sums the arrays of every thread that ever counted. Solvers keep a local long in
+ * their hot loop and call add() once per call or per worker, so counters stay on
+ * in every run.
+ *
+ * snapshot() is exact once the counting threads are done (parallel streams and
+ * pools have been joined); while they run it may miss recent adds.
+ *
+ * A thread's array lives as long as the process unless the thread calls release()
+ * when its task is done, which folds its counts into a shared total. Anything
+ * that runs tasks on fresh threads (one per request, say) must do that, or the
+ * arrays pile up.
+ */
+public final class Metrics {
+
+    private static final List<String> NAMES = new ArrayList<>();
+    private static final Queue<Slot> SLOTS = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Slot> LOCAL = new ThreadLocal<>();
+    private static long[] released = new long[0]; // Counts of threads that released their slot
+
+    private Metrics() {
+    }
+
+    /** Counter with the given name, by convention "dayNN.whatIsCounted". */
+    public static synchronized Counter counter(String name) {
+        int index = NAMES.indexOf(name);
+        if (index < 0) {
+            index = NAMES.size();
+            NAMES.add(name);
+        }
+        return new Counter(name, index);
+    }
+
+    /**
+     * Zeroes every counter on every thread, in place: a pool worker that keeps its
+     * slot across runs goes on adding into the same array. Call it while no solver
+     * is counting (Runner does, between warmup and the timed calls); an add racing
+     * with it may survive the reset.
+     */
+    public static synchronized void reset() {
+        for (Slot slot : SLOTS) Arrays.fill(slot.values, 0);
+        Arrays.fill(released, 0);
+    }
+
+    /** Folds the calling thread's counts into the shared total and drops its slot. */
+    public static synchronized void release() {
+        Slot slot = LOCAL.get();
+        if (slot == null) return;
+        long[] values = slot.values;
+        if (values.length > released.length) released = Arrays.copyOf(released, values.length);
+        for (int i = 0; i < values.length; i++) released[i] += values[i];
+        SLOTS.remove(slot);
+        LOCAL.remove();
+    }
+
+    /** Sum over all threads of every counter that is not zero, by name. */
+    public static synchronized Map<String, Long> snapshot() {
+        long[] totals = new long[NAMES.size()];
+        for (int i = 0; i < Math.min(released.length, totals.length); i++) totals[i] += released[i];
+        for (Slot slot : SLOTS) {
+            long[] values = slot.values;
+            for (int i = 0; i < Math.min(values.length, totals.length); i++) totals[i] += values[i];
+        }
+        Map<String, Long> result = new TreeMap<>();
+        for (int i = 0; i < totals.length; i++) {
+            if (totals[i] != 0) result.put(NAMES.get(i), totals[i]);
+        }
+        return result;
+    }
+
+    private static final class Slot {
+        // Replaced only by its own thread when it grows; volatile so snapshot() and reset() see the new array
+        volatile long[] values = new long[16];
+    }
+
+    public static final class Counter {
+        private final String name;
+        private final int index;
+
+        private Counter(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public void add(long delta) {
+            Slot slot = LOCAL.get();
+            if (slot == null) {
+                LOCAL.set(slot = new Slot());
+                SLOTS.add(slot);
+            }
+            long[] values = slot.values;
+            if (index >= values.length) {
+                values = slot.values = Arrays.copyOf(values, Math.max(index + 1, 2 * values.length));
+            }
+            values[index] += delta;
+        }
+
+        public void increment() {
+            add(1);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs every day in one JVM with warmup and repeated measurement.
+ *
+ * Usage: javac *.java && java Runner [--warmup N] [--iterations M] [--days 1,9,12] [--json]
+ *        java Runner --concurrent [--pool P] [--days ...]
+ *
+ * --inputs DIR reads DIR/dayNN.txt instead of inputs/ (e.g. files from Generate).
+ * --history FILE appends every result to FILE for History to compare runs.
+ *
+ * Each day's parse and each part are called N times untimed to let the JIT
+ * settle, then M times timed. Parsing is timed on its own (the "parse" rows) and
+ * both parts then solve against one shared model. Reports min / median / p99 per
+ * call and throughput (calls per second over the measured iterations). Mapping
+ * the input is not part of the timings. Work
+ * counters (see Metrics) are reset before the timed calls and reported as an
+ * average per call. Reading the input and each call are also Flight Recorder
+ * phase events (see Events).
+ *
+ * --concurrent instead runs every selected part once, all at the same time (see
+ * runConcurrent).
+ */
+public class Runner {
+
+    static final List<Solver<?>> SOLVERS = List.of(
+            new Day01(), new Day02(), new Day03(), new Day04(), new Day05(), new Day06(),
+            new Day07(), new Day08(), new Day09(), new Day10(), new Day11(), new Day12());
+
+    /**
+     * Timing summary for one part of one day, or its parse when part is 0. samples
+     * holds every measured call in ascending order; allocated is bytes per call
+     * over all threads, or -1 where the JVM cannot tell.
+     */
+    record Result(int day, String title, int part, long answer, int iterations,
+                  long min, long median, long p99, double throughput, Map<String, Long> counters,
+                  long[] samples, long allocated) {
+
+        String phase() {
+            return part == 0 ? Events.Phase.PARSE : "part " + part;
+        }
+    }
+
+    // Answers and models are stored here so the JIT cannot drop a call whose result is unused
+    static volatile long sink;
+    static volatile Object modelSink;
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 5, iterations = 20, pool = Runtime.getRuntime().availableProcessors();
+        boolean json = false, concurrent = false;
+        String inputs = null, history = null;
+        List<Integer> days = null;
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "--warmup" -> warmup = Integer.parseInt(args[++a]);
+                case "--iterations" -> iterations = Integer.parseInt(args[++a]);
+                case "--json" -> json = true;
+                case "--concurrent" -> concurrent = true;
+                case "--pool" -> pool = Integer.parseInt(args[++a]);
+                case "--inputs" -> inputs = args[++a];
+                case "--history" -> history = args[++a];
+                case "--days" -> days = Arrays.stream(args[++a].split(",")).map(Integer::parseInt).toList();
+                default -> throw new IllegalArgumentException("Unknown option: " + args[a]);
+            }
+        }
+        if (iterations < 1) throw new IllegalArgumentException("Need at least one measured iteration");
+        if (warmup < 0) throw new IllegalArgumentException("Warmup cannot be negative");
+
+        List<Solver<?>> selected = new ArrayList<>();
+        for (Solver<?> solver : SOLVERS) {
+            if (days == null || days.contains(solver.day())) selected.add(solver);
+        }
+        if (concurrent) {
+            runConcurrent(selected, inputs, pool);
+            return;
+        }
+
+        List<Result> results = new ArrayList<>();
+        Map<Integer, String> inputHashes = new TreeMap<>();
+        for (Solver<?> solver : selected) {
+            Input input = read(solver, inputs);
+            inputHashes.put(solver.day(), input.sha256());
+            results.addAll(measure(solver, input, warmup, iterations));
+        }
+
+        System.out.println(json ? toJson(results, warmup) : toTable(results, warmup));
+        if (history != null) History.append(Paths.get(history), results, inputHashes);
+    }
+
+    /** The day's file in the given directory (dayNN.txt), or its own input when dir is null. */
+    static Path inputPath(Solver<?> solver, String dir) {
+        return dir == null ? solver.input() : Paths.get(dir, String.format("day%02d.txt", solver.day()));
+    }
+
+    /** One part of one day in a concurrent run, times relative to the start of the run. */
+    record Span(Solver<?> solver, int part, long answer, long mapped, long parsed, long start, long end, long cpu) {}
+
+    /**
+     * Every part of every selected day at once, in this JVM.
+     *
+     * Each day gets a virtual thread that maps its input (the blocking I/O) and
+     * then hands the parse, and after it both parts, to one fork/join pool of the
+     * given parallelism.
+     * Engines that use parallel streams (Day09, Day10, Day12) run those streams
+     * on the same pool, so together they never use more than that many cores.
+     * Reports wall time against process CPU time, and the critical path: the day
+     * whose own map + parse + slowest part took longest.
+     */
+    static void runConcurrent(List<Solver<?>> solvers, String inputs, int parallelism) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        List<Future<List<Span>>> days = new ArrayList<>();
+        long cpuBefore = os.getProcessCpuTime();
+        long origin = System.nanoTime();
+        try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Solver<?> solver : solvers) {
+                days.add(io.submit(() -> runDay(solver, inputs, pool, threads, origin)));
+            }
+        }
+        long wall = System.nanoTime() - origin;
+        long processCpu = os.getProcessCpuTime() - cpuBefore;
+        pool.shutdown();
+
+        List<Span> spans = new ArrayList<>();
+        for (Future<List<Span>> day : days) spans.addAll(day.get());
+        System.out.println(String.format("=== %d days concurrently, fork/join parallelism %d ===", solvers.size(), parallelism));
+        System.out.println(String.format("%-3s %-22s %-4s %18s %12s %12s %12s %12s %12s",
+                "Day", "Title", "Part", "Answer", "Mapped at", "Parsed at", "Started at", "Took", "Thread CPU"));
+        long threadCpu = 0;
+        for (Span span : spans) {
+            System.out.println(String.format("%-3d %-22s %-4d %18d %12s %12s %12s %12s %12s",
+                    span.solver().day(), span.solver().title(), span.part(), span.answer(),
+                    Solver.formatTime(span.mapped()), Solver.formatTime(span.parsed()),
+                    Solver.formatTime(span.start()), Solver.formatTime(span.end() - span.start()),
+                    Solver.formatTime(span.cpu())));
+            threadCpu += span.cpu();
+        }
+
+        // A day's path: mapping and parsing, then its slowest part (the parts run side by side)
+        Span critical = spans.stream()
+                .max(Comparator.comparingLong(span -> span.parsed() + span.end() - span.start()))
+                .orElseThrow();
+        long path = critical.parsed() + critical.end() - critical.start();
+        System.out.println(String.format(Locale.ROOT, "Wall: %s, process CPU: %s (%.1fx wall), solver thread CPU: %s",
+                Solver.formatTime(wall), Solver.formatTime(processCpu), (double) processCpu / wall,
+                Solver.formatTime(threadCpu)));
+        System.out.println(String.format(Locale.ROOT, "Critical path: Day %02d %s part %d, %s (%.0f%% of wall)",
+                critical.solver().day(), critical.solver().title(), critical.part(), Solver.formatTime(path),
+                100.0 * path / wall));
+    }
+
+    /**
+     * One day's map, parse and parts, run from a virtual thread. The parse goes to
+     * the pool like the parts: it is CPU work too, and the parts need its model.
+     */
+    private static <M> List<Span> runDay(Solver<M> solver, String inputs, ForkJoinPool pool,
+                                         ThreadMXBean threads, long origin) throws Exception {
+        Input input = read(solver, inputs);
+        long mapped = System.nanoTime() - origin;
+        M model = pool.submit(() -> solver.parse(input)).get();
+        long parsed = System.nanoTime() - origin;
+
+        List<Future<Span>> parts = new ArrayList<>();
+        for (int part = 1; part <= solver.parts(); part++) {
+            int p = part;
+            parts.add(pool.submit(() -> {
+                long cpu = threads.getCurrentThreadCpuTime();
+                long start = System.nanoTime() - origin;
+                long answer = run(solver, p, model, input);
+                return new Span(solver, p, answer, mapped, parsed, start, System.nanoTime() - origin,
+                        threads.getCurrentThreadCpuTime() - cpu);
+            }));
+        }
+        List<Span> spans = new ArrayList<>();
+        for (Future<Span> part : parts) spans.add(part.get());
+        return spans;
+    }
+
+    /** Parse timings (as part 0), then every part against one model built outside the timings. */
+    static <M> List<Result> measure(Solver<M> solver, Input input, int warmup, int iterations) {
+        List<Result> results = new ArrayList<>();
+        results.add(measure(solver, 0, () -> {
+            modelSink = solver.parse(input);
+            return 0;
+        }, warmup, iterations));
+
+        M model = solver.parse(input);
+        for (int part = 1; part <= solver.parts(); part++) {
+            int p = part;
+            results.add(measure(solver, part, () -> run(solver, p, model, input), warmup, iterations));
+        }
+        return results;
+    }
+
+    private static Result measure(Solver<?> solver, int part, LongSupplier call, int warmup, int iterations) {
+        // The first call fixes the answer: the first warmup call, or with no warmup the first measured one
+        long answer = 0;
+        for (int i = 0; i < warmup; i++) {
+            long value = call.getAsLong();
+            if (i == 0) answer = value;
+            sink += value;
+        }
+
+        long[] nanos = new long[iterations];
+        Metrics.reset();
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            long value = call.getAsLong();
+            nanos[i] = System.nanoTime() - start;
+            if (warmup == 0 && i == 0) answer = value;
+            if (value != answer) {
+                throw new IllegalStateException("Day " + solver.day() + " part " + part
+                        + " is not deterministic: " + answer + " then " + value);
+            }
+            sink += value;
+        }
+
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : (allocatedAfter - allocatedBefore) / iterations;
+
+        Map<String, Long> counters = new TreeMap<>();
+        Metrics.snapshot().forEach((name, count) -> counters.put(name, count / iterations));
+
+        long total = Arrays.stream(nanos).sum();
+        Arrays.sort(nanos);
+        return new Result(solver.day(), solver.title(), part, answer, iterations,
+                nanos[0], percentile(nanos, 50), percentile(nanos, 99),
+                iterations * 1e9 / Math.max(1, total), counters, nanos, allocated);
+    }
+
+    /** Bytes allocated so far by all live threads (pool workers included), or -1. */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /** One call of one part, recorded as a Flight Recorder phase. */
+    private static <M> long run(Solver<M> solver, int part, M model, Input input) {
+        Events.Phase phase = Events.phase(solver.day(), part == 1 ? Events.Phase.PART1 : Events.Phase.PART2);
+        long answer = part == 1 ? solver.part1(model) : solver.part2(model);
+        Events.finish(phase, input, answer);
+        return answer;
+    }
+
+    private static Input read(Solver<?> solver, String dir) throws IOException {
+        Events.Phase phase = Events.phase(solver.day(), Events.Phase.READ);
+        Input input = Input.map(inputPath(solver, dir));
+        Events.finish(phase, input, input.length());
+        return input;
+    }
+
+    /** Nearest-rank percentile of an ascending array. */
+    static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    static String toTable(List<Result> results, int warmup) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-3s %-22s %-6s %18s %12s %12s %12s %12s%n",
+                "Day", "Title", "Phase", "Answer", "Min", "Median", "P99", "Ops/s"));
+        long parseTotal = 0, solveTotal = 0;
+        for (Result r : results) {
+            out.append(String.format(Locale.ROOT, "%-3d %-22s %-6s %18s %12s %12s %12s %12.1f%n",
+                    r.day(), r.title(), r.phase(), r.part() == 0 ? "" : Long.toString(r.answer()),
+                    Solver.formatTime(r.min()), Solver.formatTime(r.median()), Solver.formatTime(r.p99()),
+                    r.throughput()));
+            if (r.part() == 0) parseTotal += r.median();
+            else solveTotal += r.median();
+            r.counters().forEach((name, count) -> out.append(String.format(Locale.ROOT, "    %-28s %,d per call%n", name, count)));
+        }
+        int iterations = results.isEmpty() ? 0 : results.getFirst().iterations();
+        out.append(String.format("Sum of medians: %s parse + %s solve (%d warmup, %d measured iterations each)",
+                Solver.formatTime(parseTotal), Solver.formatTime(solveTotal), warmup, iterations));
+        return out.toString();
+    }
+
+    static String toJson(List<Result> results, int warmup) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"warmup\":").append(warmup).append(",\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            if (i > 0) out.append(',');
+            out.append(String.format(Locale.ROOT,
+                    "{\"day\":%d,\"title\":\"%s\",\"part\":%d,\"phase\":\"%s\",\"answer\":%d,\"iterations\":%d,"
+                            + "\"minNanos\":%d,\"medianNanos\":%d,\"p99Nanos\":%d,\"opsPerSecond\":%.3f,\"allocatedBytes\":%d,\"counters\":{",
+                    r.day(), r.title().replace("\\", "\\\\").replace("\"", "\\\""), r.part(), r.phase(), r.answer(),
+                    r.iterations(), r.min(), r.median(), r.p99(), r.throughput(), r.allocated()));
+            String separator = "";
+            for (Map.Entry<String, Long> counter : r.counters().entrySet()) {
+                out.append(separator).append('"').append(counter.getKey()).append("\":").append(counter.getValue());
+                separator = ",";
+            }
+            out.append("}}");
+        }
+        return out.append("]}").toString();
+    }
+}
@@ -0,0 +1,169 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-running local solver service, so tools calling the solvers keep one warm JVM.
+ *
+ * Usage: javac *.java && java Service [--port 8025] [--cache-entries 256] [--threads N]
+ *
+ *   POST /solve?day=N   request body: the puzzle input
+ *   GET  /stats         cache size, hits and misses
+ *
+ * Answers are cached in an LRU map keyed by day and the SHA-256 of the input
+ * bytes, so a repeated call is a hash and a lookup. Requests run on a fixed pool
+ * of platform threads (default: one per core), since solving is CPU-bound and
+ * more threads than cores only queue for them; each request releases its thread's
+ * Metrics slot when done. The server binds to the loopback address only and needs
+ * no network.
+ */
+public class Service {
+
+    /** Both answers for one input; nanos is how long the solve took when it was computed. */
+    record Answer(int day, long part1, long part2, long nanos) {}
+
+    /** Least recently used entries go first once the map holds more than maxEntries. */
+    static final class AnswerCache {
+        private final int maxEntries;
+        private final Map<String, Answer> entries;
+        private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+        AnswerCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Answer> eldest) {
+                    return size() > AnswerCache.this.maxEntries;
+                }
+            };
+        }
+
+        synchronized Answer get(String key) {
+            Answer answer = entries.get(key);
+            (answer == null ? misses : hits).incrementAndGet();
+            return answer;
+        }
+
+        synchronized void put(String key, Answer answer) {
+            if (maxEntries > 0) entries.put(key, answer);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private final Map<Integer, Solver<?>> solvers = new LinkedHashMap<>();
+    private final AnswerCache cache;
+
+    Service(int cacheEntries) {
+        for (Solver<?> solver : Runner.SOLVERS) solvers.put(solver.day(), solver);
+        this.cache = new AnswerCache(cacheEntries);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8025, cacheEntries = 256, threads = Runtime.getRuntime().availableProcessors();
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "--port" -> port = Integer.parseInt(args[++a]);
+                case "--cache-entries" -> cacheEntries = Integer.parseInt(args[++a]);
+                case "--threads" -> threads = Integer.parseInt(args[++a]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[a]);
+            }
+        }
+
+        Service service = new Service(cacheEntries);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/solve", service::solve);
+        server.createContext("/stats", service::stats);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.start();
+        System.out.println("Solver service on http://localhost:" + server.getAddress().getPort()
+                + " (cache: " + cacheEntries + " entries, " + threads + " threads)");
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            respond(exchange);
+        } finally {
+            Metrics.release();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                reply(exchange, 405, "{\"error\":\"POST the input to /solve?day=N\"}");
+                return;
+            }
+            Solver<?> solver = solvers.get(dayParameter(exchange.getRequestURI()));
+            if (solver == null) {
+                reply(exchange, 404, "{\"error\":\"Unknown day\"}");
+                return;
+            }
+
+            Input input = Input.of(exchange.getRequestBody().readAllBytes());
+            long start = System.nanoTime();
+            String key = solver.day() + ":" + input.sha256();
+            Answer answer = cache.get(key);
+            boolean cached = answer != null;
+            if (!cached) {
+                answer = answer(solver, input);
+                cache.put(key, answer);
+            }
+            reply(exchange, 200, String.format(Locale.ROOT,
+                    "{\"day\":%d,\"part1\":%d,\"part2\":%d,\"cached\":%b,\"solveNanos\":%d,\"requestNanos\":%d}",
+                    answer.day(), answer.part1(), answer.part2(), cached, answer.nanos(), System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // Malformed day or an input the solver rejects
+            reply(exchange, 400, "{\"error\":\"" + String.valueOf(e.getMessage())
+                    .replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            reply(exchange, 200, String.format("{\"entries\":%d,\"maxEntries\":%d,\"hits\":%d,\"misses\":%d}",
+                    cache.size(), cache.maxEntries, cache.hits.get(), cache.misses.get()));
+        }
+    }
+
+    /** Parses once and solves both parts (part 2 is 0 for single-part days). */
+    static <M> Answer answer(Solver<M> solver, Input input) {
+        long start = System.nanoTime();
+        M model = solver.parse(input);
+        long part1 = solver.part1(model);
+        long part2 = solver.parts() > 1 ? solver.part2(model) : 0;
+        return new Answer(solver.day(), part1, part2, System.nanoTime() - start);
+    }
+
+    private static int dayParameter(URI uri) {
+        String query = uri.getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith("day=")) return Integer.parseInt(pair.substring(4));
+            }
+        }
+        throw new IllegalArgumentException("Missing day parameter");
+    }
+
+    private static void reply(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Common shape of a day's solution, so one runner can load every day in the same JVM.
+ *
+ * parse() builds the day's model once (sorted edges, merged ranges, a compiled
+ * graph) and both parts solve against it, so preprocessing is neither repeated
+ * nor timed as part of a solve. Models are shared by the two parts, possibly
+ * running at the same time, and must not be modified by them. Days that solve
+ * straight from the bytes use the Input as their model and give each part its
+ * own duplicate() cursor.
+ *
+ * Implementations delegate to the same engines their own main uses. Answers are
+ * returned as long; days with a single part return 1 from parts().
+ */
+public interface Solver<M> {
+
+    /** Puzzle title as printed in the "=== Day NN: Title ===" header. */
+    String title();
+
+    /** Model of the whole input, read from its start whatever the cursor position. */
+    M parse(Input input);
+
+    long part1(M model);
+
+    long part2(M model);
+
+    default int parts() {
+        return 2;
+    }
+
+    /**
+     * Short id of the engine behind a part (0 is parse), recorded with every result in
+     * the performance history so runs of different engines are not compared. Days
+     * with a single engine per part keep "standard".
+     */
+    default String engine(int part) {
+        return "standard";
+    }
+
+    /** Day number taken from the class name (Day07 -> 7), 0 for the template. */
+    default int day() {
+        String digits = getClass().getSimpleName().replaceAll("\\D", "");
+        return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    default Path input() {
+        return Paths.get(String.format("inputs/day%02d.txt", day()));
+    }
+
+    static String formatTime(long nanos) {
+        if (nanos < 1_000) return nanos + " ns";
+        if (nanos < 1_000_000) return String.format("%.2f μs", nanos / 1_000.0);
+        if (nanos < 1_000_000_000) return String.format("%.2f ms", nanos / 1_000_000.0);
+        return String.format("%.2f s", nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,37 @@
+package aoc.collections;
+
+/** Table sizing and hashing shared by the open-addressing collections. */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads key over the low bits. Grid columns and node IDs are small and
+     * consecutive, which a plain mask would put in adjacent slots and turn into
+     * long probe runs once they wrap.
+     */
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Power of two with room for expectedSize keys at half load. */
+    static int tableSize(int expectedSize) {
+        int size = 4;
+        while (size < 2 * expectedSize) size <<= 1;
+        return size;
+    }
+
+    /** A new table of the given size holding positions 0 .. count - 1 of keys. */
+    static int[] rehash(int[] keys, int count, int size) {
+        int[] table = new int[size];
+        int mask = size - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = mix(keys[i]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,59 @@
+package aoc.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/** Growable list of ints in one int[]: no boxing and no object per element. */
+public final class IntList {
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        elements = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) elements = Arrays.copyOf(elements, 2 * size);
+        elements[size++] = value;
+    }
+
+    public int get(int index) {
+        return elements[Objects.checkIndex(index, size)];
+    }
+
+    public void set(int index, int value) {
+        elements[Objects.checkIndex(index, size)] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Empties the list, keeping its capacity. */
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /** A copy of the elements, sized to fit. */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,117 @@
+package aoc.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Map from int to long with open addressing: no boxing and no entry objects.
+ *
+ * Laid out like IntSet: keys and values in insertion order in dense arrays
+ * (iterate with keyAt / valueAt), and a linearly probed table of positions kept
+ * at most half full. There is no removal.
+ */
+public final class IntLongMap {
+
+    private int[] keys;
+    private long[] values;
+    private int[] table;
+    private int size;
+
+    public IntLongMap() {
+        this(16);
+    }
+
+    public IntLongMap(int expectedSize) {
+        keys = new int[Math.max(1, expectedSize)];
+        values = new long[keys.length];
+        table = new int[Hashing.tableSize(expectedSize)];
+    }
+
+    /** The value for key, or defaultValue when absent. */
+    public long get(int key, long defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(int key, long value) {
+        int index = insert(key); // Before reading values: inserting may grow it
+        values[index] = value;
+    }
+
+    /** Adds delta to the value for key (absent counts as 0) and returns the sum. */
+    public long add(int key, long delta) {
+        int index = insert(key);
+        return values[index] += delta;
+    }
+
+    /** The index-th key in insertion order. */
+    public int keyAt(int index) {
+        return keys[Objects.checkIndex(index, size)];
+    }
+
+    /** The value of keyAt(index). */
+    public long valueAt(int index) {
+        return values[Objects.checkIndex(index, size)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Empties the map, keeping its capacity. */
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    /** A copy of the values in insertion order. */
+    public long[] values() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private int indexOf(int key) {
+        int mask = table.length - 1;
+        for (int slot = Hashing.mix(key) & mask, entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+        return -1;
+    }
+
+    /** Position of key, appended with value 0 if absent. */
+    private int insert(int key) {
+        int mask = table.length - 1;
+        int slot = Hashing.mix(key) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+        }
+        int index = size++;
+        keys[index] = key;
+        values[index] = 0;
+        table[slot] = size;
+        if (2 * size > table.length) table = Hashing.rehash(keys, size, 2 * table.length);
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) out.append(", ");
+            out.append(keys[i]).append('=').append(values[i]);
+        }
+        return out.append('}').toString();
+    }
+}
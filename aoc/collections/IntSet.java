@@ -0,0 +1,81 @@
+package aoc.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Set of ints with open addressing: no boxing and no entry objects.
+ *
+ * Keys sit in insertion order in a dense int[], so iterating is an indexed loop
+ * over get(0) .. get(size() - 1). The hash table, probed linearly and kept at
+ * most half full, holds each key's position plus one (0 marks a free slot), so
+ * every int, 0 included, can be a key. There is no removal: the solvers build a
+ * fresh set (or clear() one) instead.
+ */
+public final class IntSet {
+
+    private int[] keys;
+    private int[] table;
+    private int size;
+
+    public IntSet() {
+        this(16);
+    }
+
+    public IntSet(int expectedSize) {
+        keys = new int[Math.max(1, expectedSize)];
+        table = new int[Hashing.tableSize(expectedSize)];
+    }
+
+    /** Adds key; false if it was already present. */
+    public boolean add(int key) {
+        int mask = table.length - 1;
+        int slot = Hashing.mix(key) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (keys[entry - 1] == key) return false;
+        }
+        if (size == keys.length) keys = Arrays.copyOf(keys, 2 * size);
+        keys[size++] = key;
+        table[slot] = size;
+        if (2 * size > table.length) table = Hashing.rehash(keys, size, 2 * table.length);
+        return true;
+    }
+
+    public boolean contains(int key) {
+        int mask = table.length - 1;
+        for (int slot = Hashing.mix(key) & mask, entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (keys[entry - 1] == key) return true;
+        }
+        return false;
+    }
+
+    /** The index-th key in insertion order. */
+    public int get(int index) {
+        return keys[Objects.checkIndex(index, size)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Empties the set, keeping its capacity. */
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    /** A copy of the keys in insertion order. */
+    public int[] toArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,27 @@
+package aoc.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH entry point that turns on the allocation profiler (-prof gc) by default,
+ * so every run reports bytes allocated per operation next to the timings.
+ * Pass --no-gc to leave it off, or any -prof option to choose profilers yourself.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>();
+        boolean gc = true;
+        for (String arg : args) {
+            if (arg.equals("--no-gc")) gc = false;
+            else options.add(arg);
+            if (arg.equals("-prof") || arg.equals("-lprof")) gc = false;
+        }
+        if (gc) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
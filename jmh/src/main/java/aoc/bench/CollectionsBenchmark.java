@@ -0,0 +1,137 @@
+package aoc.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import aoc.collections.IntList;
+import aoc.collections.IntLongMap;
+import aoc.collections.IntSet;
+import aoc.collections.LongList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The aoc.collections types against the boxed JDK collections they replaced, in
+ * the solvers' access patterns: building a set and probing it (Day07's beams), merging
+ * counts per key and summing them (Day07's timelines, Day08's circuit sizes), and
+ * appending numbers then reading them back (Day05's IDs, Day06's operands, Day09's
+ * tiles). Keys and probes are small non-negative ints with repeats, like columns and
+ * node IDs, in random order.
+ *
+ * Each JDK benchmark is named after its primitive counterpart with a "jdk" prefix;
+ * run with the default gc profiler to see the allocation difference as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionsBenchmark {
+
+    @Param({"150", "10000"})
+    int size;
+
+    private int[] keys, probes;
+    private long[] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(2025);
+        keys = new int[size];
+        probes = new int[size];
+        values = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(2 * size);
+            probes[i] = random.nextInt(2 * size);
+            values[i] = random.nextLong(1L << 40);
+        }
+    }
+
+    @Benchmark
+    public int intSet() {
+        IntSet set = new IntSet();
+        for (int key : keys) set.add(key);
+        int hits = 0;
+        for (int probe : probes) if (set.contains(probe)) hits++;
+        return hits + set.size();
+    }
+
+    @Benchmark
+    public int jdkIntSet() {
+        Set<Integer> set = new HashSet<>();
+        for (int key : keys) set.add(key);
+        int hits = 0;
+        for (int probe : probes) if (set.contains(probe)) hits++;
+        return hits + set.size();
+    }
+
+    @Benchmark
+    public long intLongMap() {
+        IntLongMap map = new IntLongMap();
+        for (int i = 0; i < size; i++) map.add(keys[i], values[i]);
+        long total = 0;
+        for (int i = 0; i < map.size(); i++) total += map.valueAt(i);
+        return total;
+    }
+
+    @Benchmark
+    public long jdkIntLongMap() {
+        Map<Integer, Long> map = new HashMap<>();
+        for (int i = 0; i < size; i++) map.merge(keys[i], values[i], Long::sum);
+        long total = 0;
+        for (long value : map.values()) total += value;
+        return total;
+    }
+
+    @Benchmark
+    public long longList() {
+        LongList list = new LongList();
+        for (long value : values) list.add(value);
+        long total = 0;
+        for (int i = 0; i < list.size(); i++) total += list.get(i);
+        return total;
+    }
+
+    @Benchmark
+    public long jdkLongList() {
+        List<Long> list = new ArrayList<>();
+        for (long value : values) list.add(value);
+        long total = 0;
+        for (long value : list) total += value;
+        return total;
+    }
+
+    @Benchmark
+    public long intList() {
+        IntList list = new IntList();
+        for (int key : keys) list.add(key);
+        long total = 0;
+        for (int i = 0; i < list.size(); i++) total += list.get(i);
+        return total;
+    }
+
+    @Benchmark
+    public long jdkIntList() {
+        List<Integer> list = new ArrayList<>();
+        for (int key : keys) list.add(key);
+        long total = 0;
+        for (int key : list) total += key;
+        return total;
+    }
+}
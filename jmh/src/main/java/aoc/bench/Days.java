@@ -0,0 +1,47 @@
+package aoc.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+
+/**
+ * Access to the DayNN classes from a named package.
+ *
+ * The solutions live in the unnamed package (so they can run as single source
+ * files), which Java code in a package cannot import. JMH refuses benchmarks in
+ * the unnamed package, so the benchmarks reach the days through method handles.
+ */
+final class Days {
+
+    private Days() {}
+
+    static Class<?> dayClass(int day) throws ClassNotFoundException {
+        return Class.forName(String.format("Day%02d", day));
+    }
+
+    /** Input.map(path), as an Object since Input cannot be named from here. */
+    static Object map(Path path) throws ReflectiveOperationException {
+        return Class.forName("Input").getMethod("map", Path.class).invoke(null, path);
+    }
+
+    /** A fresh instance of the day's Solver. */
+    static Object solver(int day) throws ReflectiveOperationException {
+        return dayClass(day).getDeclaredConstructor().newInstance();
+    }
+
+    /** Solver.parse of the given solver, typed (Object)Object. */
+    static MethodHandle parse(Object solver) throws ReflectiveOperationException {
+        return MethodHandles.publicLookup()
+                .findVirtual(Class.forName("Solver"), "parse", MethodType.methodType(Object.class, Class.forName("Input")))
+                .bindTo(solver)
+                .asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    /** Solver.part1 / Solver.part2 of the given solver over a parsed model, typed (Object)long. */
+    static MethodHandle part(Object solver, int part) throws ReflectiveOperationException {
+        return MethodHandles.publicLookup()
+                .findVirtual(Class.forName("Solver"), "part" + part, MethodType.methodType(long.class, Object.class))
+                .bindTo(solver);
+    }
+}
@@ -0,0 +1,59 @@
+package aoc.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Input handling without solving: mapping the file, and Solver.parse over the
+ * mapped bytes (grid, merged ranges, sorted edges, segments, machines, compiled
+ * graph, shapes). Days that solve straight from the bytes return the input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"})
+    int day;
+
+    @Param({"inputs"})
+    String inputDir;
+
+    private Path path;
+    private Object input;
+    private MethodHandle parse;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Paths.get(inputDir, String.format("day%02d.txt", day));
+        input = Days.map(path);
+        parse = Days.parse(Days.solver(day));
+    }
+
+    @Benchmark
+    public Object map() throws Exception {
+        return Days.map(path);
+    }
+
+    @Benchmark
+    public Object model() throws Throwable {
+        return (Object) parse.invokeExact(input);
+    }
+}
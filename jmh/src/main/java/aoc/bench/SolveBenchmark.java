@@ -0,0 +1,62 @@
+package aoc.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Both parts of every day, solving against the model Solver.parse built in
+ * setup, so parsing is not part of these numbers (see ParseBenchmark).
+ *
+ * inputDir picks the input set: "inputs" is the puzzle input, any other
+ * directory with dayNN.txt files (larger generated inputs) can be passed with
+ * -p inputDir=... to scale the problem size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolveBenchmark {
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"})
+    int day;
+
+    @Param({"inputs"})
+    String inputDir;
+
+    private Object model;
+    private MethodHandle part1, part2;
+
+    @Setup
+    public void setup() throws Throwable {
+        Object solver = Days.solver(day);
+        Object input = Days.map(Paths.get(inputDir, String.format("day%02d.txt", day)));
+        model = (Object) Days.parse(solver).invokeExact(input);
+        part1 = Days.part(solver, 1);
+        part2 = Days.part(solver, 2);
+    }
+
+    @Benchmark
+    public long part1() throws Throwable {
+        return (long) part1.invokeExact(model);
+    }
+
+    @Benchmark
+    public long part2() throws Throwable {
+        return (long) part2.invokeExact(model);
+    }
+}